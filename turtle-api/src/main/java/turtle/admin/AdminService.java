@@ -1,22 +1,28 @@
 package turtle.admin;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.WebApplicationException;
 import turtle.coach.CoachProfile;
 import turtle.coach.CoachStatus;
+import turtle.coach.event.CoachStatusChangedEvent;
 
 import java.util.List;
 
 @ApplicationScoped
 public class AdminService {
 
+    @Inject
+    Event<CoachStatusChangedEvent> coachStatusChangedEvent;
+
     public List<CoachProfile> listCoachesByStatus(String status) {
         if (status != null) {
             CoachStatus cs = CoachStatus.valueOf(status.toUpperCase());
-            return CoachProfile.list("status", cs);
+            return CoachProfile.listByStatusWithUser(cs);
         }
-        return CoachProfile.listAll();
+        return CoachProfile.listWithUser();
     }
 
     @Transactional
@@ -24,6 +30,7 @@ public class AdminService {
         CoachProfile profile = CoachProfile.findByUserId(userId)
                 .orElseThrow(() -> new WebApplicationException("Coach not found", 404));
         profile.status = CoachStatus.APPROVED;
+        coachStatusChangedEvent.fire(new CoachStatusChangedEvent(userId));
         return profile;
     }
 
@@ -32,6 +39,7 @@ public class AdminService {
         CoachProfile profile = CoachProfile.findByUserId(userId)
                 .orElseThrow(() -> new WebApplicationException("Coach not found", 404));
         profile.status = CoachStatus.REJECTED;
+        coachStatusChangedEvent.fire(new CoachStatusChangedEvent(userId));
         return profile;
     }
 }
@@ -41,13 +41,14 @@ public class AuthService {
         user.role = req.role();
         user.persist();
 
+        CoachProfile profile = null;
         if (req.role() == UserRole.COACH) {
-            CoachProfile profile = new CoachProfile();
+            profile = new CoachProfile();
             profile.user = user;
             profile.persist();
         }
 
-        return new TokenResponse(generateToken(user));
+        return new TokenResponse(generateToken(user, profile));
     }
 
     public TokenResponse login(LoginRequest req) {
@@ -58,14 +59,15 @@ public class AuthService {
             throw new WebApplicationException("Invalid credentials", 401);
         }
 
+        CoachProfile profile = null;
         if (user.role == UserRole.COACH) {
-            CoachProfile profile = CoachProfile.findByUserId(user.id).orElse(null);
+            profile = CoachProfile.findByUserId(user.id).orElse(null);
             if (profile != null && profile.status == CoachStatus.REJECTED) {
                 throw new WebApplicationException("Account has been rejected", 403);
             }
         }
 
-        return new TokenResponse(generateToken(user));
+        return new TokenResponse(generateToken(user, profile));
     }
 
     @Transactional
@@ -88,18 +90,15 @@ public class AuthService {
         user.role = UserRole.ADMIN;
         user.persist();
 
-        return new TokenResponse(generateToken(user));
+        return new TokenResponse(generateToken(user, null));
     }
 
-    private String generateToken(AppUser user) {
+    /** Signs a token for {@code user}; a coach's group follows {@code profile}, which the caller has already loaded. */
+    private String generateToken(AppUser user, CoachProfile profile) {
         String group = switch (user.role) {
             case CLIENT -> "CLIENT";
             case ADMIN  -> "ADMIN";
-            case COACH  -> {
-                Optional<CoachProfile> profile = CoachProfile.findByUserId(user.id);
-                yield profile.map(p -> p.status == CoachStatus.APPROVED ? "COACH" : "COACH_PENDING")
-                             .orElse("COACH_PENDING");
-            }
+            case COACH  -> profile != null && profile.status == CoachStatus.APPROVED ? "COACH" : "COACH_PENDING";
         };
         return Jwt.issuer("turtle-api")
                 .subject(String.valueOf(user.id))
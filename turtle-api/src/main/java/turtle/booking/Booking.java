@@ -2,6 +2,7 @@ package turtle.booking;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
+import turtle.booking.dto.BookingParticipants;
 import turtle.coach.Availability;
 import turtle.coach.CoachingService;
 import turtle.user.AppUser;
@@ -19,15 +20,15 @@ public class Booking extends PanacheEntityBase {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     public Long id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "client_id", nullable = false)
     public AppUser client;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "coach_id", nullable = false)
     public AppUser coach;
 
-    @OneToMany(mappedBy = "booking", fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "booking", fetch = FetchType.LAZY)
     @OrderBy("startsAt ASC")
     public List<Availability> slots = new ArrayList<>();
 
@@ -35,7 +36,7 @@ public class Booking extends PanacheEntityBase {
     @Column(nullable = false, length = 20)
     public BookingStatus status = BookingStatus.PENDING;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "booking_extras",
         joinColumns = @JoinColumn(name = "booking_id"),
@@ -57,6 +58,45 @@ public class Booking extends PanacheEntityBase {
         return slots.isEmpty() ? null : slots.get(slots.size() - 1).endsAt;
     }
 
+    /** Loads a booking with its client and coach; enough for authorization and notifications. */
+    public static Booking findByIdWithParticipants(Long id) {
+        return getEntityManager().createQuery(
+                "SELECT b FROM Booking b JOIN FETCH b.client JOIN FETCH b.coach WHERE b.id = :id",
+                Booking.class)
+                .setParameter("id", id)
+                .getResultStream().findFirst().orElse(null);
+    }
+
+    /** Just the participant ids and status of a booking, without loading the entity. */
+    public static BookingParticipants findParticipants(Long id) {
+        return getEntityManager().createQuery(
+                "SELECT new turtle.booking.dto.BookingParticipants(b.client.id, b.coach.id, b.status) " +
+                "FROM Booking b WHERE b.id = :id",
+                BookingParticipants.class)
+                .setParameter("id", id)
+                .getResultStream().findFirst().orElse(null);
+    }
+
+    /**
+     * Loads a booking with everything a BookingResponse needs. Slots and extras are
+     * both bags, so they are fetched by two queries instead of one cartesian join.
+     */
+    public static Booking findByIdWithDetails(Long id) {
+        Booking booking = getEntityManager().createQuery(
+                "SELECT b FROM Booking b JOIN FETCH b.client JOIN FETCH b.coach " +
+                "LEFT JOIN FETCH b.slots WHERE b.id = :id",
+                Booking.class)
+                .setParameter("id", id)
+                .getResultStream().findFirst().orElse(null);
+        if (booking != null) {
+            getEntityManager().createQuery(
+                    "SELECT b FROM Booking b LEFT JOIN FETCH b.extras WHERE b = :booking", Booking.class)
+                    .setParameter("booking", booking)
+                    .getResultList();
+        }
+        return booking;
+    }
+
     public static List<Booking> findActiveByCoachOnDate(Long coachId, LocalDate date) {
         LocalDateTime from = date.atStartOfDay();
         LocalDateTime to = date.plusDays(1).atStartOfDay();
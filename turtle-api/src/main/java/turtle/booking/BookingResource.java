@@ -7,18 +7,21 @@ import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
-import io.quarkus.security.identity.SecurityIdentity;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.security.SecurityRequirement;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import turtle.booking.dto.BookingPage;
 import turtle.booking.dto.BookingResponse;
+import turtle.booking.dto.BookingSummaryResponse;
 import turtle.booking.dto.CreateBookingRequest;
 import turtle.coach.dto.CoachingServiceResponse.ExtraServiceSummary;
+import turtle.user.CurrentUser;
 import turtle.user.UserRole;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Tag(name = "Bookings", description = "Create and manage coaching session bookings")
@@ -29,11 +32,14 @@ import java.util.List;
 @Authenticated
 public class BookingResource {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Inject
     BookingService bookingService;
 
     @Inject
-    SecurityIdentity identity;
+    CurrentUser currentUser;
 
     @Operation(summary = "Create a booking (CLIENT)", description = "Book one or more consecutive availability slots with a coach. All slots must belong to the same coach and be adjacent.")
     @APIResponse(responseCode = "201", description = "Booking created with PENDING status",
@@ -44,21 +50,31 @@ public class BookingResource {
     @POST
     @RolesAllowed("CLIENT")
     public Response create(@Valid CreateBookingRequest req) {
-        Long clientId = Long.parseLong(identity.getPrincipal().getName());
-        Booking booking = bookingService.create(clientId, req.availabilityIds(), req.notes(), req.extraServiceIds());
+        Booking booking = bookingService.create(currentUser.user(), req.availabilityIds(), req.notes(), req.extraServiceIds());
         return Response.status(201).entity(toResponse(booking)).build();
     }
 
-    @Operation(summary = "List bookings", description = "Returns all bookings for the authenticated user. COACHes see bookings where they are the coach; CLIENTs see their own bookings.")
-    @APIResponse(responseCode = "200", description = "List of bookings",
-            content = @Content(schema = @Schema(implementation = BookingResponse.class)))
+    @Operation(summary = "List bookings", description = "Returns a page of bookings for the authenticated user, newest first. COACHes see bookings where they are the coach; CLIENTs see their own bookings. When more results exist, the X-Next-Cursor response header carries the value to pass as 'after' for the next page. Items are summaries: the session's start and end replace the slot list, and extras are omitted; fetch GET /bookings/{id} for the full booking.")
+    @APIResponse(responseCode = "200", description = "Page of bookings",
+            content = @Content(schema = @Schema(implementation = BookingSummaryResponse.class)))
+    @APIResponse(responseCode = "400", description = "limit is out of range or from is after to")
     @GET
-    public List<BookingResponse> list() {
-        Long userId = Long.parseLong(identity.getPrincipal().getName());
-        UserRole role = identity.hasRole("COACH") ? UserRole.COACH : UserRole.CLIENT;
-        return bookingService.listForUser(userId, role).stream()
-                .map(this::toResponse)
-                .toList();
+    public Response list(@QueryParam("status") BookingStatus status,
+                         @QueryParam("from") LocalDate from,
+                         @QueryParam("to") LocalDate to,
+                         @QueryParam("after") Long after,
+                         @QueryParam("limit") @DefaultValue("20") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE)
+            throw new WebApplicationException("limit must be between 1 and " + MAX_PAGE_SIZE, 400);
+        if (from != null && to != null && from.isAfter(to))
+            throw new WebApplicationException("from must be on or before to", 400);
+
+        Long userId = currentUser.id();
+        UserRole role = currentUser.hasRole("COACH") ? UserRole.COACH : UserRole.CLIENT;
+        BookingPage page = bookingService.listForUser(userId, role, status, from, to, after, limit);
+        Response.ResponseBuilder response = Response.ok(page.items());
+        if (page.nextCursor() != null) response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        return response.build();
     }
 
     @Operation(summary = "Get a booking by ID")
@@ -69,7 +85,7 @@ public class BookingResource {
     @GET
     @Path("/{id}")
     public BookingResponse get(@PathParam("id") Long id) {
-        Long userId = Long.parseLong(identity.getPrincipal().getName());
+        Long userId = currentUser.id();
         return toResponse(bookingService.getById(id, userId));
     }
 
@@ -82,7 +98,7 @@ public class BookingResource {
     @Path("/{id}/approve")
     @RolesAllowed("COACH")
     public BookingResponse approve(@PathParam("id") Long id) {
-        Long coachId = Long.parseLong(identity.getPrincipal().getName());
+        Long coachId = currentUser.id();
         return toResponse(bookingService.approve(id, coachId));
     }
 
@@ -95,7 +111,7 @@ public class BookingResource {
     @Path("/{id}/reject")
     @RolesAllowed("COACH")
     public BookingResponse reject(@PathParam("id") Long id) {
-        Long coachId = Long.parseLong(identity.getPrincipal().getName());
+        Long coachId = currentUser.id();
         return toResponse(bookingService.reject(id, coachId));
     }
 
@@ -106,7 +122,7 @@ public class BookingResource {
     @DELETE
     @Path("/{id}")
     public Response cancel(@PathParam("id") Long id) {
-        Long clientId = Long.parseLong(identity.getPrincipal().getName());
+        Long clientId = currentUser.id();
         bookingService.cancel(id, clientId);
         return Response.noContent().build();
     }
@@ -3,20 +3,35 @@ package turtle.booking;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
+import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.WebApplicationException;
+import org.hibernate.Session;
+import turtle.booking.dto.BookingPage;
+import turtle.booking.dto.BookingSummaryResponse;
 import turtle.booking.event.BookingApprovedEvent;
+import turtle.booking.event.BookingCancelledEvent;
 import turtle.booking.event.BookingCreatedEvent;
 import turtle.booking.event.BookingRejectedEvent;
 import turtle.coach.Availability;
+import turtle.coach.CoachCatalog;
 import turtle.coach.CoachingService;
+import turtle.coach.PriorityResolver;
+import turtle.coach.ServiceCatalog;
+import turtle.coach.TimeWindow;
 import turtle.user.AppUser;
 import turtle.user.UserRole;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class BookingService {
@@ -30,16 +45,21 @@ public class BookingService {
     @Inject
     Event<BookingRejectedEvent> bookingRejectedEvent;
 
+    @Inject
+    Event<BookingCancelledEvent> bookingCancelledEvent;
+
+    @Inject
+    ServiceCatalog serviceCatalog;
+
     @Transactional
     public Booking create(Long clientId, List<Long> availabilityIds, String notes, List<Long> extraServiceIds) {
-        List<Availability> slots = availabilityIds.stream()
-                .map(id -> {
-                    Availability a = Availability.findById(id);
-                    if (a == null) throw new WebApplicationException("Availability " + id + " not found", 404);
-                    return a;
-                })
-                .sorted(Comparator.comparing(a -> a.startsAt))
-                .toList();
+        return create(AppUser.<AppUser>findById(clientId), availabilityIds, notes, extraServiceIds);
+    }
+
+    /** Books the slots for {@code client}, usually the request's {@link turtle.user.CurrentUser#user()}. */
+    @Transactional
+    public Booking create(AppUser client, List<Long> availabilityIds, String notes, List<Long> extraServiceIds) {
+        List<Availability> slots = resolveSlots(availabilityIds);
 
         Long coachId = slots.get(0).coach.id;
         if (slots.stream().anyMatch(a -> !a.coach.id.equals(coachId)))
@@ -56,40 +76,52 @@ public class BookingService {
                 throw new WebApplicationException("Slots must be consecutive with no gaps", 400);
         }
 
-        AppUser client = AppUser.findById(clientId);
-        AppUser coach = AppUser.findById(coachId);
+        assertOfferedOnTheirDay(slots, coachId);
+
+        List<CoachingService> selectedExtras = resolveExtras(extraServiceIds, slots.get(0), coachId);
 
         Booking booking = new Booking();
         booking.client = client;
-        booking.coach = coach;
+        // The coach was fetched along with the slots
+        booking.coach = slots.get(0).coach;
         booking.status = BookingStatus.PENDING;
         booking.notes = notes;
         booking.createdAt = LocalDateTime.now();
+        booking.extras = selectedExtras;
         booking.persist();
 
+        // Claim the slots atomically: each statement only takes slots that are still
+        // free, so a concurrent booking of the same slot makes the counts fall short
+        Map<Long, List<Integer>> virtualByWindow = new LinkedHashMap<>();
+        List<Long> storedIds = new ArrayList<>();
         for (Availability slot : slots) {
-            slot.booking = booking;
-        }
-        booking.slots = slots;
-
-        // Resolve optional extra services
-        if (extraServiceIds != null && !extraServiceIds.isEmpty()) {
-            CoachingService mainService = slots.get(0).timeWindow != null
-                    ? slots.get(0).timeWindow.service : null;
-            List<CoachingService> selectedExtras = new ArrayList<>();
-            for (Long extraId : extraServiceIds) {
-                CoachingService extra = CoachingService.findById(extraId);
-                if (extra == null)
-                    throw new WebApplicationException("Extra service " + extraId + " not found", 404);
-                if (!extra.coach.id.equals(coachId))
-                    throw new WebApplicationException("Extra service " + extraId + " does not belong to this coach", 400);
-                if (mainService == null || mainService.extras.stream().noneMatch(e -> e.id.equals(extraId)))
-                    throw new WebApplicationException(
-                            "Service " + extraId + " is not an available extra for this booking's service", 400);
-                selectedExtras.add(extra);
+            if (slot.isPersistent()) {
+                storedIds.add(slot.id);
+            } else {
+                virtualByWindow.computeIfAbsent(slot.timeWindow.id, k -> new ArrayList<>())
+                        .add(Availability.slotIndexOf(slot.id));
+            }
+        }
+        int claimed = storedIds.isEmpty() ? 0 : Availability.claimStored(storedIds, booking);
+        // One insert per run of consecutive indices: a window's slots can be interleaved
+        // with another window's, and the indices between them were not requested
+        for (Map.Entry<Long, List<Integer>> window : virtualByWindow.entrySet()) {
+            List<Integer> indices = window.getValue();
+            indices.sort(null);
+            int runStart = 0;
+            for (int i = 1; i <= indices.size(); i++) {
+                if (i == indices.size() || indices.get(i) != indices.get(i - 1) + 1) {
+                    claimed += Availability.insertRange(window.getKey(),
+                            indices.get(runStart), indices.get(i - 1), booking.id);
+                    runStart = i;
+                }
             }
-            booking.extras = selectedExtras;
         }
+        if (claimed != slots.size())
+            throw new WebApplicationException("One or more slots are already booked", 409);
+
+        slots.forEach(slot -> slot.booking = booking);
+        booking.slots = new ArrayList<>(slots);
 
         bookingCreatedEvent.fire(new BookingCreatedEvent(booking));
         return booking;
@@ -109,14 +141,14 @@ public class BookingService {
         Booking booking = findAndAssertCoachOwnership(bookingId, coachId);
         assertPending(booking);
         booking.status = BookingStatus.REJECTED;
-        booking.slots.forEach(s -> s.booking = null);
+        releaseSlots(booking);
         bookingRejectedEvent.fire(new BookingRejectedEvent(booking));
         return booking;
     }
 
     @Transactional
     public void cancel(Long bookingId, Long clientId) {
-        Booking booking = Booking.findById(bookingId);
+        Booking booking = Booking.findByIdWithDetails(bookingId);
         if (booking == null) {
             throw new WebApplicationException("Booking not found", 404);
         }
@@ -125,18 +157,63 @@ public class BookingService {
         }
         assertPending(booking);
         booking.status = BookingStatus.CANCELLED;
-        booking.slots.forEach(s -> s.booking = null);
+        releaseSlots(booking);
+        bookingCancelledEvent.fire(new BookingCancelledEvent(booking));
     }
 
-    public List<Booking> listForUser(Long userId, UserRole role) {
-        if (role == UserRole.COACH) {
-            return Booking.list("coach.id", userId);
+    /**
+     * Lists a page of the user's bookings, newest first, as a single projection
+     * query. Paging is keyset-based on the booking id: pass the previous page's
+     * {@code nextCursor} as {@code afterId}. The date range applies to the
+     * session start and is inclusive on both ends.
+     */
+    public BookingPage listForUser(Long userId, UserRole role, BookingStatus status,
+                                   LocalDate from, LocalDate to, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder(
+                "SELECT new turtle.booking.dto.BookingSummaryResponse(" +
+                "b.id, c.id, c.name, co.id, co.name, MIN(s.startsAt), MAX(s.endsAt), b.status, b.notes, b.createdAt) " +
+                "FROM Booking b JOIN b.client c JOIN b.coach co LEFT JOIN b.slots s WHERE ");
+        jpql.append(role == UserRole.COACH ? "co.id = :user" : "c.id = :user");
+        Map<String, Object> params = new HashMap<>();
+        params.put("user", userId);
+        if (status != null) {
+            jpql.append(" AND b.status = :status");
+            params.put("status", status);
+        }
+        if (afterId != null) {
+            jpql.append(" AND b.id < :after");
+            params.put("after", afterId);
         }
-        return Booking.list("client.id", userId);
+        // A booking is in range when its first slot starts in it. Both probes run per
+        // candidate row on the (booking_id, starts_at) index, so the keyset walk still
+        // stops after limit + 1 matches instead of aggregating every booking first
+        if (from != null || to != null) {
+            jpql.append(" AND EXISTS (SELECT 1 FROM Availability a WHERE a.booking = b");
+            if (from != null) jpql.append(" AND a.startsAt >= :from");
+            if (to != null) jpql.append(" AND a.startsAt < :to");
+            jpql.append(")");
+        }
+        if (from != null) {
+            jpql.append(" AND NOT EXISTS (SELECT 1 FROM Availability a WHERE a.booking = b AND a.startsAt < :from)");
+            params.put("from", from.atStartOfDay());
+        }
+        if (to != null) params.put("to", to.plusDays(1).atStartOfDay());
+        jpql.append(" GROUP BY b.id, c.id, c.name, co.id, co.name, b.status, b.notes, b.createdAt");
+        jpql.append(" ORDER BY b.id DESC");
+
+        TypedQuery<BookingSummaryResponse> query = Booking.getEntityManager()
+                .createQuery(jpql.toString(), BookingSummaryResponse.class)
+                .setMaxResults(limit + 1);
+        params.forEach(query::setParameter);
+        List<BookingSummaryResponse> rows = query.getResultList();
+
+        if (rows.size() <= limit) return new BookingPage(rows, null);
+        List<BookingSummaryResponse> items = rows.subList(0, limit);
+        return new BookingPage(items, items.get(limit - 1).id());
     }
 
     public Booking getById(Long bookingId, Long userId) {
-        Booking booking = Booking.findById(bookingId);
+        Booking booking = Booking.findByIdWithDetails(bookingId);
         if (booking == null) {
             throw new WebApplicationException("Booking not found", 404);
         }
@@ -146,8 +223,116 @@ public class BookingService {
         return booking;
     }
 
+    /**
+     * Resolves the requested slot ids, returned in start order. Computed slots need
+     * one query for their time windows; ids no window produces fall back to stored
+     * legacy rows.
+     */
+    private List<Availability> resolveSlots(List<Long> slotIds) {
+        Set<Long> windowIds = slotIds.stream()
+                .map(Availability::windowIdOf)
+                .collect(Collectors.toSet());
+        Map<Long, TimeWindow> windows = new HashMap<>();
+        for (TimeWindow tw : TimeWindow.findByIdsForBooking(windowIds)) {
+            windows.put(tw.id, tw);
+        }
+
+        List<Availability> slots = new ArrayList<>(slotIds.size());
+        List<Long> unresolved = new ArrayList<>();
+        for (Long id : slotIds) {
+            TimeWindow tw = windows.get(Availability.windowIdOf(id));
+            Availability slot = tw != null ? tw.slotAt(id) : null;
+            if (slot != null) slots.add(slot);
+            else unresolved.add(id);
+        }
+        if (!unresolved.isEmpty()) {
+            Map<Long, Availability> stored = new HashMap<>();
+            for (Availability a : Availability.findByIdsWithCoach(unresolved)) {
+                stored.put(a.id, a);
+            }
+            for (Long id : unresolved) {
+                Availability slot = stored.get(id);
+                if (slot == null) throw new WebApplicationException("Availability " + id + " not found", 404);
+                slots.add(slot);
+            }
+        }
+        slots.sort(Comparator.comparing(a -> a.startsAt));
+        return slots;
+    }
+
+    /**
+     * Checks consecutive slots against the rest of their day with one query for the
+     * day's stored slots and one for its time windows: a slot must not be stored as
+     * booked, must not overlap another booking, and must not be shadowed by a
+     * higher-priority time window.
+     */
+    private void assertOfferedOnTheirDay(List<Availability> slots, Long coachId) {
+        LocalDate day = slots.get(0).startsAt.toLocalDate();
+        Map<Long, Availability> stored = new HashMap<>();
+        List<Availability> booked = new ArrayList<>();
+        for (Availability a : Availability.findByCoachOnDate(coachId, day)) {
+            stored.put(a.id, a);
+            if (a.booking != null) booked.add(a);
+        }
+        for (Availability slot : slots) {
+            Availability row = stored.get(slot.id);
+            if ((row != null && row.booking != null) || PriorityResolver.overlapsAny(slot, booked))
+                throw new WebApplicationException("One or more slots are already booked", 409);
+        }
+
+        if (slots.stream().allMatch(a -> a.timeWindow == null)) return;
+        List<TimeWindow> dayWindows = TimeWindow.findByCoachForDate(coachId, day);
+        for (Availability slot : slots) {
+            if (slot.timeWindow != null && !PriorityResolver.isOffered(slot, dayWindows))
+                throw new WebApplicationException("Availability " + slot.id + " not found", 404);
+        }
+    }
+
+    /** Checks the selected extras against the coach's catalog snapshot, then loads them in one call. */
+    private List<CoachingService> resolveExtras(List<Long> extraServiceIds, Availability firstSlot, Long coachId) {
+        if (extraServiceIds == null || extraServiceIds.isEmpty()) return new ArrayList<>();
+
+        CoachCatalog catalog = serviceCatalog.forCoach(coachId);
+        CoachingService mainService = firstSlot.timeWindow != null ? firstSlot.timeWindow.service : null;
+        for (Long extraId : extraServiceIds) {
+            if (catalog.find(extraId) == null) {
+                // Only the error path needs to tell a missing service from another coach's
+                if (CoachingService.findById(extraId) == null)
+                    throw new WebApplicationException("Extra service " + extraId + " not found", 404);
+                throw new WebApplicationException("Extra service " + extraId + " does not belong to this coach", 400);
+            }
+            if (mainService == null || !catalog.offersExtra(mainService.id, extraId))
+                throw new WebApplicationException(
+                        "Service " + extraId + " is not an available extra for this booking's service", 400);
+        }
+
+        // Multi-load returns the services in request order and only queries those missing from
+        // the cache; a service deleted since the snapshot was built comes back as null
+        List<CoachingService> extras = Booking.getEntityManager().unwrap(Session.class)
+                .byMultipleIds(CoachingService.class)
+                .enableSessionCheck(true)
+                .multiLoad(extraServiceIds);
+        List<CoachingService> selectedExtras = new ArrayList<>();
+        for (int i = 0; i < extraServiceIds.size(); i++) {
+            if (extras.get(i) == null)
+                throw new WebApplicationException("Extra service " + extraServiceIds.get(i) + " not found", 404);
+            selectedExtras.add(extras.get(i));
+        }
+        return selectedExtras;
+    }
+
+    /**
+     * Frees the booking's slots. Slots backed by a time window turn virtual again,
+     * so their rows are dropped; standalone legacy slots are only unlinked. The
+     * in-memory slot list is left intact for the notification observers.
+     */
+    private void releaseSlots(Booking booking) {
+        Availability.delete("booking.id = ?1 AND timeWindow IS NOT NULL", booking.id);
+        Availability.update("booking = null WHERE booking.id = ?1", booking.id);
+    }
+
     private Booking findAndAssertCoachOwnership(Long bookingId, Long coachId) {
-        Booking booking = Booking.findById(bookingId);
+        Booking booking = Booking.findByIdWithDetails(bookingId);
         if (booking == null) {
             throw new WebApplicationException("Booking not found", 404);
         }
@@ -0,0 +1,6 @@
+package turtle.booking.dto;
+
+import java.util.List;
+
+/** One page of bookings; {@code nextCursor} is null on the last page. */
+public record BookingPage(List<BookingSummaryResponse> items, Long nextCursor) {}
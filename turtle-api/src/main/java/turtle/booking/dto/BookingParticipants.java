@@ -0,0 +1,11 @@
+package turtle.booking.dto;
+
+import turtle.booking.BookingStatus;
+
+/** The two parties of a booking and its status; all an authorization check needs. */
+public record BookingParticipants(Long clientId, Long coachId, BookingStatus status) {
+
+    public boolean includes(Long userId) {
+        return clientId.equals(userId) || coachId.equals(userId);
+    }
+}
@@ -0,0 +1,18 @@
+package turtle.booking.dto;
+
+import turtle.booking.BookingStatus;
+
+import java.time.LocalDateTime;
+
+public record BookingSummaryResponse(
+        Long id,
+        Long clientId,
+        String clientName,
+        Long coachId,
+        String coachName,
+        LocalDateTime startsAt,
+        LocalDateTime endsAt,
+        BookingStatus status,
+        String notes,
+        LocalDateTime createdAt
+) {}
@@ -0,0 +1,5 @@
+package turtle.booking.event;
+
+import turtle.booking.Booking;
+
+public record BookingCancelledEvent(Booking booking) {}
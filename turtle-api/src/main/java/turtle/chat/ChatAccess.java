@@ -0,0 +1,56 @@
+package turtle.chat;
+
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CacheResult;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import turtle.booking.Booking;
+import turtle.booking.dto.BookingParticipants;
+import turtle.booking.event.BookingApprovedEvent;
+import turtle.booking.event.BookingCancelledEvent;
+import turtle.booking.event.BookingCreatedEvent;
+import turtle.booking.event.BookingRejectedEvent;
+
+/**
+ * Caches who takes part in a booking and its status, so chat reads authorize
+ * without loading the booking. Every status change evicts the booking's entry
+ * once committed.
+ */
+@ApplicationScoped
+public class ChatAccess {
+
+    public static final String CACHE_NAME = "chat-participants";
+
+    @Inject
+    @CacheName(CACHE_NAME)
+    Cache cache;
+
+    /** The booking's participants and status, or {@code null} if there is no such booking. */
+    @CacheResult(cacheName = CACHE_NAME)
+    public BookingParticipants participants(Long bookingId) {
+        return Booking.findParticipants(bookingId);
+    }
+
+    void onCreated(@Observes(during = TransactionPhase.AFTER_SUCCESS) BookingCreatedEvent e) {
+        evict(e.booking());
+    }
+
+    void onApproved(@Observes(during = TransactionPhase.AFTER_SUCCESS) BookingApprovedEvent e) {
+        evict(e.booking());
+    }
+
+    void onRejected(@Observes(during = TransactionPhase.AFTER_SUCCESS) BookingRejectedEvent e) {
+        evict(e.booking());
+    }
+
+    void onCancelled(@Observes(during = TransactionPhase.AFTER_SUCCESS) BookingCancelledEvent e) {
+        evict(e.booking());
+    }
+
+    private void evict(Booking b) {
+        cache.invalidate(b.id).await().indefinitely();
+    }
+}
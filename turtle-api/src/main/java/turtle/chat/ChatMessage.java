@@ -3,6 +3,7 @@ package turtle.chat;
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
 import turtle.booking.Booking;
+import turtle.chat.dto.MessageResponse;
 import turtle.user.AppUser;
 
 import java.time.LocalDateTime;
@@ -16,11 +17,11 @@ public class ChatMessage extends PanacheEntityBase {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     public Long id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booking_id", nullable = false)
     public Booking booking;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "sender_id", nullable = false)
     public AppUser sender;
 
@@ -30,7 +31,15 @@ public class ChatMessage extends PanacheEntityBase {
     @Column(name = "sent_at", nullable = false)
     public LocalDateTime sentAt = LocalDateTime.now();
 
-    public static List<ChatMessage> findByBooking(Long bookingId) {
-        return list("booking.id = ?1 order by sentAt asc", bookingId);
+    /** Up to {@code limit} messages of a booking with an id above {@code afterId}, oldest first. */
+    public static List<MessageResponse> findAfter(Long bookingId, long afterId, int limit) {
+        return getEntityManager().createQuery(
+                "SELECT new turtle.chat.dto.MessageResponse(m.id, s.id, s.name, m.content, m.sentAt) " +
+                "FROM ChatMessage m JOIN m.sender s " +
+                "WHERE m.booking.id = :booking AND m.id > :after ORDER BY m.id", MessageResponse.class)
+                .setParameter("booking", bookingId)
+                .setParameter("after", afterId)
+                .setMaxResults(limit)
+                .getResultList();
     }
 }
@@ -0,0 +1,42 @@
+package turtle.chat;
+
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers when each participant last looked at (or wrote to) a booking's chat,
+ * so notifications about messages they have already seen can be skipped.
+ *
+ * <p>Kept in memory: on a multi-instance deployment a reader is only known to the
+ * instance that served them, which at worst sends a notification that was not needed.
+ */
+@ApplicationScoped
+public class ChatPresence {
+
+    private static final long RETENTION_MINUTES = 30;
+
+    private record Key(Long bookingId, Long userId) {}
+
+    private final Map<Key, LocalDateTime> lastSeen = new ConcurrentHashMap<>();
+
+    /** Records that the user had seen every message of the chat written before {@code at}. */
+    public void markSeen(Long bookingId, Long userId, LocalDateTime at) {
+        lastSeen.merge(new Key(bookingId, userId), at, (a, b) -> a.isAfter(b) ? a : b);
+    }
+
+    /** Whether the user has looked at the chat at or after {@code time}. */
+    public boolean hasSeenSince(Long bookingId, Long userId, LocalDateTime time) {
+        LocalDateTime seen = lastSeen.get(new Key(bookingId, userId));
+        return seen != null && !seen.isBefore(time);
+    }
+
+    @Scheduled(identity = "chat-presence-prune", every = "5M")
+    void prune() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(RETENTION_MINUTES);
+        lastSeen.values().removeIf(seen -> seen.isBefore(cutoff));
+    }
+}
@@ -1,22 +1,34 @@
 package turtle.chat;
 
 import io.quarkus.security.Authenticated;
+import io.quarkus.security.identity.SecurityIdentity;
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.jwt.auth.principal.JWTParser;
+import io.smallrye.jwt.auth.principal.ParseException;
+import io.smallrye.mutiny.Multi;
+import jakarta.annotation.security.PermitAll;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
-import io.quarkus.security.identity.SecurityIdentity;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.security.SecurityRequirement;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import turtle.booking.BookingResource;
+import turtle.chat.dto.MessagePage;
 import turtle.chat.dto.MessageResponse;
 import turtle.chat.dto.SendMessageRequest;
+import turtle.user.CurrentUser;
 
-import java.util.List;
+import java.time.Duration;
 
 @Tag(name = "Chat", description = "In-booking messaging between client and coach")
 @SecurityRequirement(name = "bearerAuth")
@@ -26,23 +38,76 @@ import java.util.List;
 @Authenticated
 public class ChatResource {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Inject
     ChatService chatService;
 
+    @Inject
+    CurrentUser currentUser;
+
     @Inject
     SecurityIdentity identity;
 
-    @Operation(summary = "List messages for a booking", description = "Returns all chat messages for the given booking. Caller must be a participant (client or coach) of that booking.")
+    @Inject
+    JWTParser jwtParser;
+
+    @ConfigProperty(name = "turtle.chat.heartbeat", defaultValue = "25S")
+    Duration heartbeat;
+
+    @Operation(summary = "List messages for a booking", description = "Returns chat messages for the given booking, oldest first, starting after the message ID given as 'after' (or from the beginning). Poll with the ID of the last message you have to receive only new ones. When more messages exist than 'limit', the X-Next-Cursor response header carries the value to pass as 'after' next. Caller must be a participant (client or coach) of that booking.")
     @APIResponse(responseCode = "200", description = "List of messages",
             content = @Content(schema = @Schema(implementation = MessageResponse.class)))
+    @APIResponse(responseCode = "400", description = "limit is out of range")
     @APIResponse(responseCode = "403", description = "Caller is not a participant in this booking")
     @APIResponse(responseCode = "404", description = "Booking not found")
     @GET
-    public List<MessageResponse> list(@PathParam("bookingId") Long bookingId) {
-        Long userId = Long.parseLong(identity.getPrincipal().getName());
-        return chatService.listMessages(bookingId, userId).stream()
-                .map(m -> new MessageResponse(m.id, m.sender.id, m.sender.name, m.content, m.sentAt))
-                .toList();
+    public Response list(@PathParam("bookingId") Long bookingId,
+                         @QueryParam("after") Long after,
+                         @QueryParam("limit") @DefaultValue("100") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE)
+            throw new WebApplicationException("limit must be between 1 and " + MAX_PAGE_SIZE, 400);
+
+        Long userId = currentUser.id();
+        MessagePage page = chatService.listMessages(bookingId, userId, after, limit);
+        Response.ResponseBuilder response = Response.ok(page.items());
+        if (page.nextCursor() != null) response.header(BookingResource.NEXT_CURSOR_HEADER, page.nextCursor());
+        return response.build();
+    }
+
+    @Operation(summary = "Stream new messages for a booking", description = "Server-Sent Events stream of messages sent in the booking from the moment of connecting, one JSON MessageResponse per event. A comment line is sent every heartbeat interval (turtle.chat.heartbeat, 25 seconds by default) so proxies keep an idle connection open. Authenticate with the usual bearer token or, for browser EventSource clients that cannot set headers, pass the same token as the access_token query parameter; query strings can end up in access logs, so prefer the header where the client allows it. On reconnect, fetch what was missed with GET ?after=<last id>. Caller must be a participant (client or coach) of that booking.")
+    @APIResponse(responseCode = "200", description = "Event stream of messages")
+    @APIResponse(responseCode = "401", description = "No valid bearer token or access_token")
+    @APIResponse(responseCode = "403", description = "Caller is not a participant in this booking")
+    @APIResponse(responseCode = "404", description = "Booking not found")
+    @GET
+    @Path("/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @PermitAll
+    @Blocking
+    public Multi<OutboundSseEvent> stream(@PathParam("bookingId") Long bookingId,
+                                          @QueryParam("access_token") String accessToken,
+                                          @Context Sse sse) {
+        Multi<OutboundSseEvent> messages = chatService.streamMessages(bookingId, streamCaller(accessToken))
+                .map(m -> sse.newEventBuilder().mediaType(MediaType.APPLICATION_JSON_TYPE)
+                        .data(MessageResponse.class, m).build());
+        // A failed heartbeat write is also how a dropped connection is noticed: it
+        // cancels the stream, which unsubscribes it from ChatStreams
+        Multi<OutboundSseEvent> heartbeats = Multi.createFrom().ticks().every(heartbeat)
+                .onOverflow().drop()
+                .map(tick -> sse.newEventBuilder().comment("heartbeat").build());
+        return Multi.createBy().merging().streams(messages, heartbeats);
+    }
+
+    /** The caller from the Authorization header if one was sent, else from the access_token parameter. */
+    private Long streamCaller(String accessToken) {
+        if (!identity.isAnonymous()) return currentUser.id();
+        if (accessToken == null) throw new WebApplicationException("Unauthorized", 401);
+        try {
+            return Long.parseLong(jwtParser.parse(accessToken).getSubject());
+        } catch (ParseException | NumberFormatException e) {
+            throw new WebApplicationException("Unauthorized", 401);
+        }
     }
 
     @Operation(summary = "Send a message in a booking", description = "Sends a chat message in the context of a booking. Caller must be a participant.")
@@ -53,7 +118,7 @@ public class ChatResource {
     @APIResponse(responseCode = "404", description = "Booking not found")
     @POST
     public Response send(@PathParam("bookingId") Long bookingId, @Valid SendMessageRequest req) {
-        Long userId = Long.parseLong(identity.getPrincipal().getName());
+        Long userId = currentUser.id();
         ChatMessage msg = chatService.sendMessage(bookingId, userId, req.content());
         return Response.status(201)
                 .entity(new MessageResponse(msg.id, msg.sender.id, msg.sender.name, msg.content, msg.sentAt))
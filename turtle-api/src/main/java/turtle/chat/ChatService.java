@@ -1,5 +1,6 @@
 package turtle.chat;
 
+import io.smallrye.mutiny.Multi;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
@@ -7,6 +8,9 @@ import jakarta.transaction.Transactional;
 import jakarta.ws.rs.WebApplicationException;
 import turtle.booking.Booking;
 import turtle.booking.BookingStatus;
+import turtle.booking.dto.BookingParticipants;
+import turtle.chat.dto.MessagePage;
+import turtle.chat.dto.MessageResponse;
 import turtle.chat.event.ChatMessageSentEvent;
 import turtle.user.AppUser;
 
@@ -19,15 +23,46 @@ public class ChatService {
     @Inject
     Event<ChatMessageSentEvent> chatMessageEvent;
 
-    public List<ChatMessage> listMessages(Long bookingId, Long callerId) {
-        getApprovedBookingForParticipant(bookingId, callerId);
-        return ChatMessage.findByBooking(bookingId);
+    @Inject
+    ChatPresence presence;
+
+    @Inject
+    ChatStreams streams;
+
+    @Inject
+    ChatAccess access;
+
+    /**
+     * Returns up to {@code limit} messages after {@code afterId} (or from the start),
+     * oldest first. A caller who is caught up counts as having seen the chat.
+     */
+    public MessagePage listMessages(Long bookingId, Long callerId, Long afterId, int limit) {
+        requireParticipant(access.participants(bookingId), callerId);
+        LocalDateTime readAt = LocalDateTime.now();
+        List<MessageResponse> rows = ChatMessage.findAfter(bookingId, afterId == null ? 0 : afterId, limit + 1);
+
+        if (rows.size() <= limit) {
+            presence.markSeen(bookingId, callerId, readAt);
+            return new MessagePage(rows, null);
+        }
+        List<MessageResponse> items = rows.subList(0, limit);
+        return new MessagePage(items, items.get(limit - 1).id());
+    }
+
+    /** Checks that the caller may follow the booking's chat, then streams its new messages. */
+    public Multi<MessageResponse> streamMessages(Long bookingId, Long callerId) {
+        requireParticipant(access.participants(bookingId), callerId);
+        return streams.subscribe(bookingId);
     }
 
     @Transactional
     public ChatMessage sendMessage(Long bookingId, Long senderId, String content) {
-        Booking booking = getApprovedBookingForParticipant(bookingId, senderId);
-        AppUser sender = AppUser.findById(senderId);
+        // Writes check the booking as loaded, not the cached participants, so a message
+        // cannot slip into a chat whose booking was just cancelled or rejected
+        Booking booking = Booking.findByIdWithParticipants(bookingId);
+        requireParticipant(booking == null ? null
+                : new BookingParticipants(booking.client.id, booking.coach.id, booking.status), senderId);
+        AppUser sender = booking.client.id.equals(senderId) ? booking.client : booking.coach;
 
         ChatMessage msg = new ChatMessage();
         msg.booking = booking;
@@ -35,22 +70,26 @@ public class ChatService {
         msg.content = content;
         msg.sentAt = LocalDateTime.now();
         msg.persist();
+        presence.markSeen(bookingId, senderId, msg.sentAt);
 
         chatMessageEvent.fire(new ChatMessageSentEvent(msg));
         return msg;
     }
 
-    private Booking getApprovedBookingForParticipant(Long bookingId, Long userId) {
-        Booking booking = Booking.findById(bookingId);
-        if (booking == null) {
+    /**
+     * Reads check the cached participants; the send path checks the booking it loads
+     * with both participants, so the sender and the notification recipient come from
+     * the same query.
+     */
+    private static void requireParticipant(BookingParticipants participants, Long userId) {
+        if (participants == null) {
             throw new WebApplicationException("Booking not found", 404);
         }
-        if (booking.status != BookingStatus.APPROVED) {
+        if (participants.status() != BookingStatus.APPROVED) {
             throw new WebApplicationException("Chat is only available for approved bookings", 403);
         }
-        if (!booking.client.id.equals(userId) && !booking.coach.id.equals(userId)) {
+        if (!participants.includes(userId)) {
             throw new WebApplicationException("Forbidden", 403);
         }
-        return booking;
     }
 }
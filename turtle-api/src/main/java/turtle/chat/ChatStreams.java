@@ -0,0 +1,76 @@
+package turtle.chat;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.subscription.BackPressureStrategy;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import turtle.chat.dto.MessageResponse;
+import turtle.chat.event.ChatMessageSentEvent;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory fan-out of committed chat messages to the participants streaming a
+ * booking's chat. A connection is just an emitter in a per-booking set; nothing
+ * holds a thread while it is idle.
+ *
+ * <p>Each stream buffers at most {@link #BUFFER_SIZE} undelivered messages; a client
+ * that falls further behind is disconnected and resyncs with the after-id cursor.
+ * Streams only see messages sent through this node.
+ */
+@ApplicationScoped
+public class ChatStreams {
+
+    static final int BUFFER_SIZE = 256;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Map<Long, Set<MultiEmitter<? super MessageResponse>>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger open = new AtomicInteger();
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("turtle.chat.streams", open, AtomicInteger::get)
+                .description("Open chat streams on this node")
+                .register(registry);
+    }
+
+    /** Messages committed to the booking's chat from now on, until the subscriber cancels. */
+    public Multi<MessageResponse> subscribe(Long bookingId) {
+        return Multi.createFrom().<MessageResponse>emitter(emitter -> {
+                    subscribers.compute(bookingId, (id, set) -> {
+                        if (set == null) set = ConcurrentHashMap.newKeySet();
+                        set.add(emitter);
+                        return set;
+                    });
+                    open.incrementAndGet();
+                    emitter.onTermination(() -> unsubscribe(bookingId, emitter));
+                }, BackPressureStrategy.IGNORE)
+                .onOverflow().buffer(BUFFER_SIZE);
+    }
+
+    void onMessage(@Observes(during = TransactionPhase.AFTER_SUCCESS) ChatMessageSentEvent e) {
+        ChatMessage m = e.message();
+        Set<MultiEmitter<? super MessageResponse>> streams = subscribers.get(m.booking.id);
+        if (streams == null) return;
+        MessageResponse response = new MessageResponse(m.id, m.sender.id, m.sender.name, m.content, m.sentAt);
+        streams.forEach(emitter -> emitter.emit(response));
+    }
+
+    private void unsubscribe(Long bookingId, MultiEmitter<? super MessageResponse> emitter) {
+        subscribers.computeIfPresent(bookingId, (id, set) -> {
+            if (set.remove(emitter)) open.decrementAndGet();
+            return set.isEmpty() ? null : set;
+        });
+    }
+}
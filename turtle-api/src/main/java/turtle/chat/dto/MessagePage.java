@@ -0,0 +1,6 @@
+package turtle.chat.dto;
+
+import java.util.List;
+
+/** Messages after a cursor, oldest first; {@code nextCursor} is null when the caller is caught up. */
+public record MessagePage(List<MessageResponse> items, Long nextCursor) {}
@@ -2,22 +2,32 @@ package turtle.coach;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
+import org.hibernate.query.NativeQuery;
 import turtle.booking.Booking;
+import turtle.coach.dto.AvailabilityResponse;
 import turtle.user.AppUser;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+/**
+ * A bookable slot. Slots are computed on demand from their {@link TimeWindow};
+ * a row is only stored once a slot is claimed by a booking. The id of a slot
+ * encodes its window and position so that virtual and stored slots share it.
+ */
 @Entity
 @Table(name = "availability")
 public class Availability extends PanacheEntityBase {
 
+    static final int SLOT_INDEX_BITS = 24;
+    static final long MAX_SLOTS_PER_WINDOW = 1L << SLOT_INDEX_BITS;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     public Long id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "coach_id", nullable = false)
     public AppUser coach;
 
@@ -41,31 +51,167 @@ public class Availability extends PanacheEntityBase {
         return AvailabilityStatus.AVAILABLE;
     }
 
-    public static List<Availability> findByCoachOnDate(Long coachId, LocalDate date) {
-        LocalDateTime from = date.atStartOfDay();
-        LocalDateTime to = date.plusDays(1).atStartOfDay();
-        return list("coach.id = ?1 AND startsAt >= ?2 AND startsAt < ?3 ORDER BY startsAt ASC",
-                coachId, from, to);
+    public static Long slotId(Long timeWindowId, int slotIndex) {
+        return (timeWindowId << SLOT_INDEX_BITS) | slotIndex;
     }
 
-    public static List<Availability> findByCoachOnDateWithService(Long coachId, LocalDate date) {
-        LocalDateTime from = date.atStartOfDay();
-        LocalDateTime to = date.plusDays(1).atStartOfDay();
+    public static Long windowIdOf(Long slotId) {
+        return slotId >>> SLOT_INDEX_BITS;
+    }
+
+    public static int slotIndexOf(Long slotId) {
+        return (int) (slotId & (MAX_SLOTS_PER_WINDOW - 1));
+    }
+
+    /**
+     * Stores slots {@code firstIndex..lastIndex} of a time window in a single
+     * INSERT ... SELECT over generate_series, computing start and end times in SQL.
+     * Slots that are already stored are skipped, so the returned row count tells
+     * the caller how many slots it actually claimed.
+     * <p>
+     * The statement is synchronized on the availability table only, so Hibernate
+     * keeps the other second-level cache regions instead of wiping them all.
+     */
+    public static int insertRange(Long timeWindowId, int firstIndex, int lastIndex, Long bookingId) {
+        @SuppressWarnings("unchecked")
+        NativeQuery<Void> insert = getEntityManager().createNativeQuery(
+                "INSERT INTO availability (id, coach_id, time_window_id, booking_id, starts_at, ends_at) " +
+                "SELECT (tw.id << " + SLOT_INDEX_BITS + ") | g.i, tw.coach_id, tw.id, CAST(:booking AS BIGINT), " +
+                "       s.starts_at, s.starts_at + make_interval(mins => tw.unit_of_work_minutes) " +
+                "FROM time_window tw " +
+                "CROSS JOIN generate_series(:first, :last) AS g(i) " +
+                "CROSS JOIN LATERAL (SELECT CAST(EXTRACT(EPOCH FROM (tw.daily_end_time - tw.daily_start_time)) AS INTEGER) " +
+                "                           / 60 / tw.unit_of_work_minutes AS per_day) d " +
+                "CROSS JOIN LATERAL (SELECT (tw.start_date + g.i / d.per_day) + tw.daily_start_time " +
+                "                           + make_interval(mins => (g.i % d.per_day) * tw.unit_of_work_minutes) AS starts_at) s " +
+                "WHERE tw.id = :window " +
+                "ON CONFLICT (id) DO NOTHING").unwrap(NativeQuery.class);
+        return insert.addSynchronizedEntityClass(Availability.class)
+                .setParameter("window", timeWindowId)
+                .setParameter("first", firstIndex)
+                .setParameter("last", lastIndex)
+                .setParameter("booking", bookingId)
+                .executeUpdate();
+    }
+
+    /** Links stored, unclaimed slots to a booking; returns how many were still free. */
+    public static int claimStored(List<Long> slotIds, Booking booking) {
+        return getEntityManager().createQuery(
+                "UPDATE Availability a SET a.booking = :booking " +
+                "WHERE a.id IN :ids AND a.booking IS NULL")
+                .setParameter("booking", booking)
+                .setParameter("ids", slotIds)
+                .executeUpdate();
+    }
+
+    public static List<Availability> findByIdsWithCoach(Collection<Long> ids) {
         return getEntityManager().createQuery(
-                "SELECT a FROM Availability a " +
-                "LEFT JOIN FETCH a.timeWindow tw " +
-                "LEFT JOIN FETCH tw.service " +
-                "WHERE a.coach.id = :coach AND a.startsAt >= :from AND a.startsAt < :to " +
-                "ORDER BY a.startsAt ASC",
+                "SELECT a FROM Availability a JOIN FETCH a.coach WHERE a.id IN :ids",
                 Availability.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    /**
+     * Computes a coach's effective slots between two dates in SQL, expanding every
+     * overlapping time window with generate_series, resolving window priority the same
+     * way {@link PriorityResolver} does and joining the stored rows to derive status.
+     * Only slots whose status is in {@code statuses} are returned (all when empty).
+     * Rows are ordered by start time.
+     */
+    public static List<AvailabilityResponse> findSlotsInRange(Long coachId, LocalDate from, LocalDate to,
+                                                              Collection<AvailabilityStatus> statuses) {
+        String sql =
+                "WITH slot AS ( " +
+                "  SELECT (tw.id << " + SLOT_INDEX_BITS + ") | (d.offset_days * p.per_day + k.i) AS id, " +
+                "         tw.id AS tw_id, tw.priority, tw.service_id, " +
+                "         tw.start_date + d.offset_days AS day, " +
+                "         (tw.start_date + d.offset_days) + tw.daily_start_time " +
+                "             + make_interval(mins => k.i * tw.unit_of_work_minutes) AS starts_at, " +
+                "         (tw.start_date + d.offset_days) + tw.daily_start_time " +
+                "             + make_interval(mins => (k.i + 1) * tw.unit_of_work_minutes) AS ends_at " +
+                "  FROM time_window tw " +
+                "  CROSS JOIN LATERAL (SELECT CAST(EXTRACT(EPOCH FROM (tw.daily_end_time - tw.daily_start_time)) AS INTEGER) " +
+                "                             / 60 / tw.unit_of_work_minutes AS per_day) p " +
+                "  CROSS JOIN LATERAL generate_series(GREATEST(tw.start_date, :from) - tw.start_date, " +
+                "                                     LEAST(tw.end_date, :to) - tw.start_date) AS d(offset_days) " +
+                "  CROSS JOIN LATERAL generate_series(0, p.per_day - 1) AS k(i) " +
+                "  WHERE tw.coach_id = :coach AND tw.start_date <= :to AND tw.end_date >= :from " +
+                "), resolved AS ( " +
+                // Stored slots always show; computed ones only if no higher-ranked window
+                // covers them (see PriorityResolver) and they do not overlap a booking
+                "  SELECT s.id, s.starts_at, s.ends_at, a.booking_id, s.service_id " +
+                "  FROM slot s LEFT JOIN availability a ON a.id = s.id " +
+                "  WHERE a.id IS NOT NULL OR ( " +
+                "    NOT EXISTS (SELECT 1 FROM time_window h " +
+                "                WHERE h.coach_id = :coach " +
+                "                  AND (h.priority > s.priority OR (h.priority = s.priority AND h.id < s.tw_id)) " +
+                "                  AND h.start_date <= s.day AND h.end_date >= s.day " +
+                "                  AND h.daily_start_time < CAST(s.ends_at AS TIME) " +
+                "                  AND h.daily_end_time > CAST(s.starts_at AS TIME)) " +
+                "    AND NOT EXISTS (SELECT 1 FROM availability b " +
+                "                    WHERE b.coach_id = :coach AND b.booking_id IS NOT NULL " +
+                "                      AND b.starts_at < s.ends_at AND b.ends_at > s.starts_at)) " +
+                "  UNION ALL " +
+                "  SELECT a.id, a.starts_at, a.ends_at, a.booking_id, NULL " +
+                "  FROM availability a " +
+                "  WHERE a.coach_id = :coach AND a.time_window_id IS NULL " +
+                "    AND a.starts_at >= :fromTs AND a.starts_at < :toTs " +
+                "), with_status AS ( " +
+                "  SELECT r.*, CASE WHEN r.booking_id IS NOT NULL THEN 'BOOKED' " +
+                "                   WHEN r.starts_at < :now THEN 'EXPIRED' " +
+                "                   ELSE 'AVAILABLE' END AS status " +
+                "  FROM resolved r " +
+                ") " +
+                "SELECT w.id, w.starts_at, w.ends_at, w.status, cs.id AS service_id, cs.name AS service_name " +
+                "FROM with_status w LEFT JOIN coaching_service cs ON cs.id = w.service_id " +
+                (statuses.isEmpty() ? "" : "WHERE w.status IN (:statuses) ") +
+                "ORDER BY w.starts_at, w.id";
+
+        @SuppressWarnings("unchecked")
+        NativeQuery<Object[]> query = getEntityManager().createNativeQuery(sql).unwrap(NativeQuery.class);
+        query.addScalar("id", Long.class)
+                .addScalar("starts_at", LocalDateTime.class)
+                .addScalar("ends_at", LocalDateTime.class)
+                .addScalar("status", String.class)
+                .addScalar("service_id", Long.class)
+                .addScalar("service_name", String.class)
                 .setParameter("coach", coachId)
                 .setParameter("from", from)
                 .setParameter("to", to)
-                .getResultList();
+                .setParameter("fromTs", from.atStartOfDay())
+                .setParameter("toTs", to.plusDays(1).atStartOfDay())
+                .setParameter("now", LocalDateTime.now());
+        if (!statuses.isEmpty()) {
+            query.setParameterList("statuses", statuses.stream().map(Enum::name).toList());
+        }
+        return query.getResultList().stream()
+                .map(r -> new AvailabilityResponse((Long) r[0], (LocalDateTime) r[1], (LocalDateTime) r[2],
+                        AvailabilityStatus.valueOf((String) r[3]), (Long) r[4], (String) r[5]))
+                .toList();
+    }
+
+    /** Stored slots starting on {@code date} whose coach is approved. */
+    public static List<Availability> findStartingOfApprovedCoaches(LocalDate date) {
+        return list("startsAt >= ?1 AND startsAt < ?2 " +
+                        "AND coach.id IN (SELECT p.user.id FROM CoachProfile p WHERE p.status = ?3)",
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay(), CoachStatus.APPROVED);
     }
 
-    public static List<Availability> findFreeByTimeWindow(Long timeWindowId) {
-        return list("timeWindow.id = ?1 AND booking IS NULL AND startsAt > ?2",
-                timeWindowId, LocalDateTime.now());
+    public static List<Availability> findStartingOn(LocalDate date, Collection<Long> coachIds) {
+        return list("startsAt >= ?1 AND startsAt < ?2 AND coach.id IN ?3",
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay(), coachIds);
+    }
+
+    public static List<Availability> findByCoachBetween(Long coachId, LocalDate from, LocalDate to) {
+        return list("coach.id = ?1 AND startsAt >= ?2 AND startsAt < ?3",
+                coachId, from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+    }
+
+    public static List<Availability> findByCoachOnDate(Long coachId, LocalDate date) {
+        LocalDateTime from = date.atStartOfDay();
+        LocalDateTime to = date.plusDays(1).atStartOfDay();
+        return list("coach.id = ?1 AND startsAt >= ?2 AND startsAt < ?3 ORDER BY startsAt ASC",
+                coachId, from, to);
     }
 }
@@ -0,0 +1,313 @@
+package turtle.coach;
+
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import turtle.booking.Booking;
+import turtle.booking.event.BookingCancelledEvent;
+import turtle.booking.event.BookingCreatedEvent;
+import turtle.booking.event.BookingRejectedEvent;
+import turtle.coach.dto.FreeRunResponse;
+import turtle.coach.event.CoachProfileChangedEvent;
+import turtle.coach.event.CoachStatusChangedEvent;
+import turtle.coach.event.TimeWindowChangedEvent;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cross-coach index of the free time of approved coaches, one {@link DayIndex} per
+ * calendar day. Each day maps half-hour buckets to the coaches with a free slot starting
+ * in them, and keeps each coach's specialty, so a search walks the buckets in start order
+ * and stops as soon as it has enough coaches instead of inspecting every coach.
+ *
+ * <p>A day is built on first use from queries over the approved coaches. Committed
+ * booking, time-window, approval and profile changes mark the affected coach stale on
+ * the affected days; stale coaches are re-read in bulk by the next search touching that
+ * day. Entries also expire after a short TTL, which bounds drift from writes made by
+ * other instances.
+ */
+@ApplicationScoped
+public class AvailabilityIndex {
+
+    public static final String CACHE_NAME = "availability-index";
+
+    static final int BUCKET_MINUTES = 30;
+
+    @Inject
+    @CacheName(CACHE_NAME)
+    Cache cache;
+
+    /**
+     * Returns up to {@code limit} approved coaches with a run of at least {@code minutes}
+     * free minutes inside {@code [from, to)}, ordered by their earliest run (then by id),
+     * each with up to {@code perCoach} runs, earliest first. Runs in the past are skipped.
+     *
+     * @param service   if not null, only slots of windows for a service with this name
+     *                  (case-insensitive) count
+     * @param specialty if not null, only coaches whose specialty contains it
+     *                  (case-insensitive) are returned
+     */
+    public Map<Long, List<FreeRunResponse>> search(LocalDateTime from, LocalDateTime to, int minutes,
+                                                   String service, String specialty, int limit, int perCoach) {
+        LocalDateTime now = LocalDateTime.now();
+        if (from.isBefore(now)) from = now.withSecond(0).withNano(0).plusMinutes(1);
+        String serviceKey = service == null ? null : service.toLowerCase(Locale.ROOT);
+        String specialtyKey = specialty == null ? null : specialty.toLowerCase(Locale.ROOT);
+
+        Map<Long, List<FreeRunResponse>> result = new LinkedHashMap<>();
+        List<LocalDate> days = from.toLocalDate().datesUntil(to.toLocalDate().plusDays(1)).toList();
+        for (int d = 0; d < days.size() && result.size() < limit; d++) {
+            LocalDate day = days.get(d);
+            int fromMinute = fromMinute(day, from);
+            int toMinute = toMinute(day, to);
+            if (toMinute - fromMinute < minutes) continue;
+
+            DayIndex index = day(day);
+            for (Long coachId : index.earliest(fromMinute, toMinute, minutes, serviceKey, specialtyKey,
+                    result.keySet(), limit - result.size())) {
+                // The coach's first run is on this day; later ones may spill into the following days
+                List<FreeRunResponse> runs = new ArrayList<>();
+                for (int k = d; k < days.size() && runs.size() < perCoach; k++) {
+                    LocalDate next = days.get(k);
+                    FreeDay free = (k == d ? index : day(next)).owner(coachId, serviceKey);
+                    if (free != null) free.findRuns(next, minutes, fromMinute(next, from), toMinute(next, to),
+                            perCoach - runs.size(), runs);
+                }
+                result.put(coachId, runs);
+            }
+        }
+        return result;
+    }
+
+    void onCreated(@Observes(during = TransactionPhase.AFTER_SUCCESS) BookingCreatedEvent e) {
+        markBookingDays(e.booking());
+    }
+
+    void onRejected(@Observes(during = TransactionPhase.AFTER_SUCCESS) BookingRejectedEvent e) {
+        markBookingDays(e.booking());
+    }
+
+    void onCancelled(@Observes(during = TransactionPhase.AFTER_SUCCESS) BookingCancelledEvent e) {
+        markBookingDays(e.booking());
+    }
+
+    void onTimeWindowChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) TimeWindowChangedEvent e) {
+        markStaleOnEveryDay(e.coachId());
+    }
+
+    void onCoachStatusChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) CoachStatusChangedEvent e) {
+        markStaleOnEveryDay(e.coachId());
+    }
+
+    void onCoachProfileChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) CoachProfileChangedEvent e) {
+        markStaleOnEveryDay(e.coachId());
+    }
+
+    private void markStaleOnEveryDay(Long coachId) {
+        CaffeineCache days = cache.as(CaffeineCache.class);
+        for (Object key : days.keySet()) {
+            markStale(days, key, coachId);
+        }
+    }
+
+    private void markBookingDays(Booking b) {
+        CaffeineCache days = cache.as(CaffeineCache.class);
+        b.slots.stream()
+                .map(s -> s.startsAt.toLocalDate())
+                .distinct()
+                .forEach(day -> markStale(days, day, b.coach.id));
+    }
+
+    private static void markStale(CaffeineCache days, Object key, Long coachId) {
+        CompletableFuture<DayIndex> index = days.getIfPresent(key);
+        if (index == null) return;
+        if (index.isDone() && !index.isCompletedExceptionally()) {
+            index.join().stale.add(coachId);
+        } else {
+            // Still being built and may have read the old state: rebuild it from scratch
+            days.invalidate(key).await().indefinitely();
+        }
+    }
+
+    private DayIndex day(LocalDate date) {
+        DayIndex index = cache.get(date, d -> build(date)).await().indefinitely();
+        index.refreshStale();
+        return index;
+    }
+
+    private static DayIndex build(LocalDate date) {
+        DayIndex index = new DayIndex(date);
+        index.load(TimeWindow.findActiveOfApprovedCoaches(date), Availability.findStartingOfApprovedCoaches(date),
+                CoachProfile.listByStatusWithUser(CoachStatus.APPROVED), null);
+        return index;
+    }
+
+    private static int fromMinute(LocalDate day, LocalDateTime from) {
+        return day.equals(from.toLocalDate()) ? minuteOfDay(from) : 0;
+    }
+
+    private static int toMinute(LocalDate day, LocalDateTime to) {
+        return day.equals(to.toLocalDate()) ? minuteOfDay(to) : 24 * 60;
+    }
+
+    private static int minuteOfDay(LocalDateTime t) {
+        return t.getHour() * 60 + t.getMinute();
+    }
+
+    /** A coach's first matching run on a day, by its start minute. */
+    private record Hit(int start, Long coachId) {}
+
+    private static final Comparator<Hit> EARLIEST_FIRST =
+            Comparator.comparingInt(Hit::start).thenComparing(Hit::coachId);
+
+    /** Free time of every approved coach on one day, bucketed by slot start. */
+    static final class DayIndex {
+
+        private final LocalDate date;
+        private final Map<Long, FreeDay> byCoach = new ConcurrentHashMap<>();
+        /** Lower-cased specialty ("" if none) of every coach in {@link #byCoach}. */
+        private final Map<Long, String> specialties = new ConcurrentHashMap<>();
+        /** Lower-cased service name -> per coach, the free slots of windows for that service. */
+        private final Map<String, Map<Long, FreeDay>> byService = new ConcurrentHashMap<>();
+        private final List<Set<Long>> buckets = new ArrayList<>();
+        final Set<Long> stale = ConcurrentHashMap.newKeySet();
+
+        DayIndex(LocalDate date) {
+            this.date = date;
+            for (int i = 0; i < 24 * 60 / BUCKET_MINUTES; i++) buckets.add(ConcurrentHashMap.newKeySet());
+        }
+
+        /**
+         * Up to {@code limit} coaches outside {@code skip} with a matching run inside
+         * {@code [fromMinute, toMinute)}, ordered by the run's start, then by id.
+         * Buckets are walked in order: a coach first met in a bucket cannot start a run
+         * before it, so every hit starting before the current bucket is final and the
+         * walk ends once {@code limit} of them are out.
+         */
+        List<Long> earliest(int fromMinute, int toMinute, int minutes, String serviceKey, String specialtyKey,
+                            Set<Long> skip, int limit) {
+            Set<Long> seen = new HashSet<>(skip);
+            PriorityQueue<Hit> pending = new PriorityQueue<>(EARLIEST_FIRST);
+            List<Long> result = new ArrayList<>();
+            List<FreeRunResponse> first = new ArrayList<>(1);
+            for (int b = fromMinute / BUCKET_MINUTES; b <= (toMinute - minutes) / BUCKET_MINUTES; b++) {
+                while (!pending.isEmpty() && pending.peek().start() < b * BUCKET_MINUTES) {
+                    result.add(pending.poll().coachId());
+                    if (result.size() == limit) return result;
+                }
+                for (Long coachId : buckets.get(b)) {
+                    if (!seen.add(coachId) || !hasSpecialty(coachId, specialtyKey)) continue;
+                    FreeDay free = owner(coachId, serviceKey);
+                    first.clear();
+                    if (free != null && free.findRuns(date, minutes, fromMinute, toMinute, 1, first) > 0) {
+                        pending.add(new Hit(minuteOfDay(first.get(0).startsAt()), coachId));
+                    }
+                }
+            }
+            while (!pending.isEmpty() && result.size() < limit) result.add(pending.poll().coachId());
+            return result;
+        }
+
+        /** The coach's free time on this day, narrowed to windows for the service if given. */
+        FreeDay owner(Long coachId, String serviceKey) {
+            Map<Long, FreeDay> source = serviceKey == null ? byCoach : byService.getOrDefault(serviceKey, Map.of());
+            return source.get(coachId);
+        }
+
+        private boolean hasSpecialty(Long coachId, String specialtyKey) {
+            return specialtyKey == null || specialties.getOrDefault(coachId, "").contains(specialtyKey);
+        }
+
+        synchronized void refreshStale() {
+            if (stale.isEmpty()) return;
+            Set<Long> coachIds = new HashSet<>(stale);
+            stale.removeAll(coachIds);
+            List<CoachProfile> approved = CoachProfile.listApprovedWithUser(coachIds, null);
+            Set<Long> approvedIds = approved.stream().map(p -> p.user.id).collect(Collectors.toSet());
+            if (approvedIds.isEmpty()) {
+                load(List.of(), List.of(), List.of(), coachIds);
+            } else {
+                load(TimeWindow.findActiveOn(date, approvedIds), Availability.findStartingOn(date, approvedIds),
+                        approved, coachIds);
+            }
+        }
+
+        /**
+         * Replaces the entries of the coaches owning the given windows and slots, and
+         * of every coach in {@code reset} (which may have none left). The windows and
+         * slots must belong to coaches among the approved {@code profiles}.
+         */
+        synchronized void load(List<TimeWindow> windows, List<Availability> stored, List<CoachProfile> profiles,
+                               Collection<Long> reset) {
+            Map<Long, String> specialtyByCoach = profiles.stream().collect(Collectors.toMap(p -> p.user.id,
+                    p -> p.specialty == null ? "" : p.specialty.toLowerCase(Locale.ROOT)));
+            Map<Long, TimeWindow> windowsById = windows.stream()
+                    .collect(Collectors.toMap(tw -> tw.id, Function.identity()));
+            Map<Long, List<TimeWindow>> windowsByCoach = windows.stream()
+                    .collect(Collectors.groupingBy(tw -> tw.coach.id));
+            Map<Long, List<Availability>> storedByCoach = stored.stream()
+                    .collect(Collectors.groupingBy(a -> a.coach.id));
+
+            Set<Long> coachIds = new HashSet<>(windowsByCoach.keySet());
+            coachIds.addAll(storedByCoach.keySet());
+            if (reset != null) coachIds.addAll(reset);
+
+            for (Long coachId : coachIds) {
+                remove(coachId);
+                List<Availability> effective = PriorityResolver.effectiveSlots(
+                        windowsByCoach.getOrDefault(coachId, List.of()),
+                        storedByCoach.getOrDefault(coachId, List.of()), date);
+                String specialty = specialtyByCoach.get(coachId);
+                if (specialty != null) put(coachId, specialty, effective, windowsById);
+            }
+        }
+
+        private void put(Long coachId, String specialty, List<Availability> effective,
+                         Map<Long, TimeWindow> windowsById) {
+            FreeDay all = FreeDay.of(effective);
+            if (all.isEmpty()) return;
+            byCoach.put(coachId, all);
+            specialties.put(coachId, specialty);
+            all.startMinutes().forEach(m -> buckets.get(m / BUCKET_MINUTES).add(coachId));
+
+            Map<String, List<Availability>> perService = new HashMap<>();
+            for (Availability slot : effective) {
+                TimeWindow tw = windowsById.get(Availability.windowIdOf(slot.id));
+                if (tw == null || tw.service == null) continue;
+                perService.computeIfAbsent(tw.service.name.toLowerCase(Locale.ROOT), n -> new ArrayList<>()).add(slot);
+            }
+            perService.forEach((name, slots) -> {
+                FreeDay free = FreeDay.of(slots);
+                if (!free.isEmpty()) byService.computeIfAbsent(name, n -> new ConcurrentHashMap<>()).put(coachId, free);
+            });
+        }
+
+        private void remove(Long coachId) {
+            FreeDay old = byCoach.remove(coachId);
+            specialties.remove(coachId);
+            if (old == null) return;
+            old.startMinutes().forEach(m -> buckets.get(m / BUCKET_MINUTES).remove(coachId));
+            byService.values().forEach(coaches -> coaches.remove(coachId));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package turtle.coach;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.ws.rs.core.EntityTag;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import turtle.booking.event.BookingCancelledEvent;
+import turtle.booking.event.BookingCreatedEvent;
+import turtle.booking.event.BookingRejectedEvent;
+import turtle.coach.event.CoachProfileChangedEvent;
+import turtle.coach.event.CoachStatusChangedEvent;
+import turtle.coach.event.CoachingServiceChangedEvent;
+import turtle.coach.event.TimeWindowChangedEvent;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory version stamps for the public catalog, behind the ETag and
+ * Last-Modified headers of the coach endpoints. A stamp is replaced once a change
+ * commits, so a conditional GET is answered without touching the database.
+ *
+ * <p>Stamps are per node and also roll over after {@code turtle.catalog.version-ttl}.
+ * That bounds how long a node can vouch for data another node changed, and how long
+ * slot statuses that change with the clock alone (EXPIRED) can be confirmed. Anyone
+ * can ask for any coach id, so at most {@code turtle.catalog.max-stamps} are kept.
+ */
+@ApplicationScoped
+public class CatalogVersions {
+
+    public enum Scope { DIRECTORY, TIME_WINDOWS, SERVICES, SLOTS }
+
+    /** A version of one resource: its entity tag and when it last changed. */
+    public record Stamp(EntityTag etag, Instant lastModified) {
+
+        public Date lastModifiedDate() {
+            return Date.from(lastModified);
+        }
+    }
+
+    private record Key(Scope scope, Long coachId) {}
+
+    private static final Long ALL_COACHES = 0L;
+
+    private final String node = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong sequence = new AtomicLong();
+
+    @ConfigProperty(name = "turtle.catalog.version-ttl", defaultValue = "30S")
+    Duration ttl;
+
+    @ConfigProperty(name = "turtle.catalog.max-stamps", defaultValue = "10000")
+    long maxStamps;
+
+    private Cache<Key, Stamp> stamps;
+
+    @PostConstruct
+    void init() {
+        stamps = Caffeine.newBuilder()
+                .maximumSize(maxStamps)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Stamp directory() {
+        return current(new Key(Scope.DIRECTORY, ALL_COACHES));
+    }
+
+    public Stamp current(Scope scope, Long coachId) {
+        return current(new Key(scope, coachId));
+    }
+
+    void onCoachStatusChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) CoachStatusChangedEvent e) {
+        bump(new Key(Scope.DIRECTORY, ALL_COACHES));
+    }
+
+    void onCoachProfileChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) CoachProfileChangedEvent e) {
+        bump(new Key(Scope.DIRECTORY, ALL_COACHES));
+    }
+
+    void onServiceChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) CoachingServiceChangedEvent e) {
+        // Time windows show the name of the service they offer
+        bump(new Key(Scope.SERVICES, e.coachId()));
+        bump(new Key(Scope.TIME_WINDOWS, e.coachId()));
+    }
+
+    void onTimeWindowChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) TimeWindowChangedEvent e) {
+        bump(new Key(Scope.TIME_WINDOWS, e.coachId()));
+        bump(new Key(Scope.SLOTS, e.coachId()));
+    }
+
+    void onBookingCreated(@Observes(during = TransactionPhase.AFTER_SUCCESS) BookingCreatedEvent e) {
+        bump(new Key(Scope.SLOTS, e.booking().coach.id));
+    }
+
+    void onBookingRejected(@Observes(during = TransactionPhase.AFTER_SUCCESS) BookingRejectedEvent e) {
+        bump(new Key(Scope.SLOTS, e.booking().coach.id));
+    }
+
+    void onBookingCancelled(@Observes(during = TransactionPhase.AFTER_SUCCESS) BookingCancelledEvent e) {
+        bump(new Key(Scope.SLOTS, e.booking().coach.id));
+    }
+
+    private Stamp current(Key key) {
+        return stamps.get(key, k -> next(null));
+    }
+
+    /** Replaces a stamp that is in use; one nobody holds is simply issued fresh on the next read. */
+    private void bump(Key key) {
+        stamps.asMap().computeIfPresent(key, (k, s) -> next(s));
+    }
+
+    /**
+     * Last-Modified has one-second resolution, so a new stamp is always at least a
+     * second past the one it replaces; otherwise If-Modified-Since could match it.
+     * An expired stamp is at least the TTL old, so a fresh one needs no adjustment.
+     */
+    private Stamp next(Stamp previous) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        if (previous != null && !now.isAfter(previous.lastModified())) now = previous.lastModified().plusSeconds(1);
+        EntityTag etag = new EntityTag(node + "-" + sequence.incrementAndGet());
+        return new Stamp(etag, now);
+    }
+}
@@ -0,0 +1,74 @@
+package turtle.coach;
+
+import turtle.coach.dto.CoachingServiceResponse;
+import turtle.coach.dto.CoachingServiceResponse.ExtraServiceSummary;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable snapshot of one coach's services: each service as the public listing
+ * shows it, extras already resolved, plus the extras adjacency and one-level rule
+ * bookings are validated against.
+ */
+public final class CoachCatalog {
+
+    private final List<CoachingServiceResponse> services;
+    private final Map<Long, CoachingServiceResponse> byId;
+    private final Map<Long, Set<Long>> extrasByService;
+
+    private CoachCatalog(List<CoachingServiceResponse> services, Map<Long, Set<Long>> extrasByService) {
+        this.services = services;
+        this.extrasByService = extrasByService;
+        Map<Long, CoachingServiceResponse> index = new HashMap<>();
+        services.forEach(s -> index.put(s.id(), s));
+        this.byId = Map.copyOf(index);
+    }
+
+    /** Builds a snapshot from the coach's services, in listing order, and its (service id, extra id) links. */
+    static CoachCatalog of(Long coachId, List<CoachingService> services, List<Object[]> extraLinks) {
+        Map<Long, CoachingService> serviceById = new HashMap<>();
+        services.forEach(s -> serviceById.put(s.id, s));
+
+        Map<Long, List<ExtraServiceSummary>> summaries = new HashMap<>();
+        Map<Long, Set<Long>> adjacency = new HashMap<>();
+        for (Object[] link : extraLinks) {
+            Long serviceId = (Long) link[0];
+            CoachingService extra = serviceById.get((Long) link[1]);
+            summaries.computeIfAbsent(serviceId, k -> new ArrayList<>())
+                    .add(new ExtraServiceSummary(extra.id, extra.name, extra.description));
+            adjacency.computeIfAbsent(serviceId, k -> new HashSet<>()).add(extra.id);
+        }
+
+        List<CoachingServiceResponse> responses = services.stream()
+                .map(s -> new CoachingServiceResponse(s.id, coachId, s.name, s.description,
+                        List.copyOf(summaries.getOrDefault(s.id, List.of()))))
+                .toList();
+        Map<Long, Set<Long>> extras = new HashMap<>();
+        adjacency.forEach((id, set) -> extras.put(id, Set.copyOf(set)));
+        return new CoachCatalog(responses, Map.copyOf(extras));
+    }
+
+    /** Every service of the coach, in id order. */
+    public List<CoachingServiceResponse> services() {
+        return services;
+    }
+
+    /** The coach's service with this id, or {@code null} if the coach has none. */
+    public CoachingServiceResponse find(Long serviceId) {
+        return byId.get(serviceId);
+    }
+
+    /**
+     * Whether clients booking {@code serviceId} may add {@code extraId}: the two are
+     * linked and the extra has no extras of its own (extras are one level deep).
+     */
+    public boolean offersExtra(Long serviceId, Long extraId) {
+        return extrasByService.getOrDefault(serviceId, Set.of()).contains(extraId)
+                && !extrasByService.containsKey(extraId);
+    }
+}
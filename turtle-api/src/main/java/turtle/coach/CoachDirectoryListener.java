@@ -0,0 +1,29 @@
+package turtle.coach;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.persistence.PostUpdate;
+import turtle.coach.event.CoachProfileChangedEvent;
+import turtle.user.AppUser;
+import turtle.user.UserRole;
+
+/**
+ * Announces updates to what the public coach directory shows, a coach's profile or
+ * name, however they are made. Observers act once the transaction commits.
+ */
+@ApplicationScoped
+public class CoachDirectoryListener {
+
+    @Inject
+    Event<CoachProfileChangedEvent> coachProfileChangedEvent;
+
+    @PostUpdate
+    void onUpdate(Object entity) {
+        if (entity instanceof CoachProfile profile) {
+            coachProfileChangedEvent.fire(new CoachProfileChangedEvent(profile.user.id));
+        } else if (entity instanceof AppUser user && user.role == UserRole.COACH) {
+            coachProfileChangedEvent.fire(new CoachProfileChangedEvent(user.id));
+        }
+    }
+}
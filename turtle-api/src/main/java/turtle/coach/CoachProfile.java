@@ -2,11 +2,18 @@ package turtle.coach;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
+import org.hibernate.jpa.HibernateHints;
+import turtle.coach.dto.CoachResponse;
 import turtle.user.AppUser;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 @Entity
+@Cacheable
+@EntityListeners(CoachDirectoryListener.class)
 @Table(name = "coach_profile")
 public class CoachProfile extends PanacheEntityBase {
 
@@ -14,7 +21,7 @@ public class CoachProfile extends PanacheEntityBase {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     public Long id;
 
-    @OneToOne(fetch = FetchType.EAGER)
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false, unique = true)
     public AppUser user;
 
@@ -28,7 +35,49 @@ public class CoachProfile extends PanacheEntityBase {
     @Column(nullable = false, length = 20)
     public CoachStatus status = CoachStatus.PENDING;
 
+    /** Served from the query cache until a write to coach_profile or app_user invalidates it. */
     public static Optional<CoachProfile> findByUserId(Long userId) {
-        return find("user.id", userId).firstResultOptional();
+        return find("FROM CoachProfile p JOIN FETCH p.user WHERE p.user.id = ?1", userId)
+                .withHint(HibernateHints.HINT_CACHEABLE, true)
+                .firstResultOptional();
+    }
+
+    public static List<CoachProfile> listWithUser() {
+        return list("FROM CoachProfile p JOIN FETCH p.user");
+    }
+
+    /**
+     * Approved coaches after {@code afterUserId} in user id order, as projections.
+     * A non-null {@code query} is matched (web-search syntax) against name,
+     * specialty and bio through the trigger-maintained {@code search_vector}.
+     */
+    @SuppressWarnings("unchecked")
+    public static List<CoachResponse> listDirectory(String query, Long afterUserId, int limit) {
+        String sql = "SELECT u.id, u.name, p.specialty FROM coach_profile p JOIN app_user u ON u.id = p.user_id " +
+                "WHERE p.status = 'APPROVED' AND u.id > :after" +
+                (query == null ? "" : " AND p.search_vector @@ websearch_to_tsquery('simple', :query)") +
+                " ORDER BY u.id LIMIT :limit";
+        Query q = getEntityManager().createNativeQuery(sql)
+                .setParameter("after", afterUserId == null ? 0L : afterUserId)
+                .setParameter("limit", limit);
+        if (query != null) q.setParameter("query", query);
+        return ((List<Object[]>) q.getResultList()).stream()
+                .map(r -> new CoachResponse(((Number) r[0]).longValue(), (String) r[1], (String) r[2]))
+                .toList();
+    }
+
+    public static List<CoachProfile> listByStatusWithUser(CoachStatus status) {
+        return list("FROM CoachProfile p JOIN FETCH p.user WHERE p.status = ?1", status);
+    }
+
+    /** Approved coaches among {@code userIds}, optionally narrowed to a specialty (case-insensitive substring). */
+    public static List<CoachProfile> listApprovedWithUser(Collection<Long> userIds, String specialty) {
+        if (specialty == null) {
+            return list("FROM CoachProfile p JOIN FETCH p.user u WHERE u.id IN ?1 AND p.status = ?2",
+                    userIds, CoachStatus.APPROVED);
+        }
+        return list("FROM CoachProfile p JOIN FETCH p.user u " +
+                        "WHERE u.id IN ?1 AND p.status = ?2 AND LOWER(p.specialty) LIKE ?3",
+                userIds, CoachStatus.APPROVED, "%" + specialty.toLowerCase(Locale.ROOT) + "%");
     }
 }
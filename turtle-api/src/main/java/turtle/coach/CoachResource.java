@@ -4,23 +4,34 @@ import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
-import io.quarkus.security.identity.SecurityIdentity;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.security.SecurityRequirement;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import turtle.booking.BookingResource;
 import turtle.coach.dto.AvailabilityResponse;
+import turtle.coach.dto.CoachAvailabilityResponse;
+import turtle.coach.dto.CoachPage;
 import turtle.coach.dto.CoachResponse;
+import turtle.coach.dto.DaySlotsResponse;
+import turtle.coach.dto.FreeRunResponse;
 import turtle.coach.dto.PriorityUpdate;
 import turtle.coach.dto.TimeWindowRequest;
 import turtle.coach.dto.TimeWindowResponse;
+import turtle.common.ConditionalGet;
+import turtle.user.CurrentUser;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Set;
 
 @Tag(name = "Coaches", description = "Browse coaches and manage availability windows")
 @Path("/coaches")
@@ -28,6 +39,11 @@ import java.util.List;
 @Consumes(MediaType.APPLICATION_JSON)
 public class CoachResource {
 
+    static final int MAX_RANGE_DAYS = 62;
+    static final int MAX_SEARCH_DAYS = 186;
+    static final int MAX_AVAILABLE_DAYS = 14;
+    static final int MAX_PAGE_SIZE = 100;
+
     @Inject
     CoachService coachService;
 
@@ -35,30 +51,73 @@ public class CoachResource {
     TimeWindowService timeWindowService;
 
     @Inject
-    SecurityIdentity identity;
+    FreeRunService freeRunService;
+
+    @Inject
+    CatalogVersions catalogVersions;
+
+    @Inject
+    CurrentUser currentUser;
 
-    @Operation(summary = "List all approved coaches", description = "Returns publicly accessible list of coaches whose status is APPROVED.")
-    @APIResponse(responseCode = "200", description = "List of coaches",
+    @Operation(summary = "Browse the coach directory", description = "Returns a page of APPROVED coaches in id order. 'q' searches name, specialty and bio (web-search syntax: words, \"quoted phrases\", -excluded). When more results exist, the X-Next-Cursor response header carries the value to pass as 'after' for the next page.")
+    @APIResponse(responseCode = "200", description = "Page of coaches",
             content = @Content(schema = @Schema(implementation = CoachResponse.class)))
+    @APIResponse(responseCode = "304", description = "No coach was approved or rejected since the given ETag / Last-Modified")
+    @APIResponse(responseCode = "400", description = "limit is out of range")
     @GET
-    public List<CoachResponse> listCoaches() {
-        return coachService.listCoaches().stream()
-                .map(p -> new CoachResponse(p.user.id, p.user.name, p.specialty))
-                .toList();
+    public Response listCoaches(@QueryParam("q") String q,
+                                @QueryParam("after") Long after,
+                                @QueryParam("limit") @DefaultValue("20") int limit,
+                                @Context Request request) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE)
+            throw new WebApplicationException("limit must be between 1 and " + MAX_PAGE_SIZE, 400);
+        return ConditionalGet.respond(request, catalogVersions.directory(), () -> {
+            CoachPage page = coachService.listDirectory(blankToNull(q), after, limit);
+            Response.ResponseBuilder response = Response.ok(page.items());
+            if (page.nextCursor() != null) response.header(BookingResource.NEXT_CURSOR_HEADER, page.nextCursor());
+            return response;
+        });
+    }
+
+    @Operation(summary = "Search coaches with free time",
+               description = "Returns approved coaches that have at least 'minutes' contiguous free minutes between 'from' and 'to', each with up to " + CoachService.RUNS_PER_COACH + " of their earliest matching runs. Optionally narrowed to a service name (exact, case-insensitive) or a specialty (substring). The range is limited to " + MAX_AVAILABLE_DAYS + " days.")
+    @APIResponse(responseCode = "200", description = "Matching coaches, earliest availability first",
+            content = @Content(schema = @Schema(implementation = CoachAvailabilityResponse.class)))
+    @APIResponse(responseCode = "400", description = "Missing or invalid parameters")
+    @GET
+    @Path("/available")
+    public List<CoachAvailabilityResponse> searchAvailable(
+            @QueryParam("from") LocalDateTime from,
+            @QueryParam("to") LocalDateTime to,
+            @QueryParam("minutes") int minutes,
+            @QueryParam("service") String service,
+            @QueryParam("specialty") String specialty,
+            @QueryParam("limit") @DefaultValue("20") int limit) {
+        if (from == null || to == null)
+            throw new WebApplicationException("Query parameters 'from' and 'to' are required", 400);
+        if (!to.isAfter(from)) throw new WebApplicationException("'to' must be after 'from'", 400);
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_AVAILABLE_DAYS)
+            throw new WebApplicationException("Time range must not exceed " + MAX_AVAILABLE_DAYS + " days", 400);
+        if (minutes < 1 || minutes > 24 * 60)
+            throw new WebApplicationException("'minutes' must be between 1 and 1440", 400);
+        if (limit < 1 || limit > 100) throw new WebApplicationException("'limit' must be between 1 and 100", 400);
+        return coachService.searchAvailable(from, to, minutes, blankToNull(service), blankToNull(specialty), limit);
     }
 
     @Operation(summary = "List time windows for a coach", description = "Returns all time windows defined by the coach. Public endpoint.")
     @APIResponse(responseCode = "200", description = "List of time windows",
             content = @Content(schema = @Schema(implementation = TimeWindowResponse.class)))
+    @APIResponse(responseCode = "304", description = "Unchanged since the given ETag / Last-Modified")
     @GET
     @Path("/{id}/time-windows")
-    public List<TimeWindowResponse> listTimeWindows(@PathParam("id") Long coachId) {
-        return timeWindowService.listForCoach(coachId)
-                .stream().map(this::toTimeWindowResponse).toList();
+    public Response listTimeWindows(@PathParam("id") Long coachId, @Context Request request) {
+        return ConditionalGet.respond(request, catalogVersions.current(CatalogVersions.Scope.TIME_WINDOWS, coachId),
+                () -> Response.ok(timeWindowService.listForCoach(coachId)
+                        .stream().map(this::toTimeWindowResponse).toList()));
     }
 
-    @Operation(summary = "Create a time window (COACH)", description = "COACHes define a recurring availability window. All slots within the window are immediately materialized as bookable availability records.")
-    @APIResponse(responseCode = "201", description = "Time window created and slots materialized",
+    @Operation(summary = "Create a time window (COACH)", description = "COACHes define a recurring availability window. Slots within the window are computed on demand and become bookable immediately.")
+    @APIResponse(responseCode = "201", description = "Time window created",
             content = @Content(schema = @Schema(implementation = TimeWindowResponse.class)))
     @APIResponse(responseCode = "400", description = "Validation error")
     @APIResponse(responseCode = "403", description = "COACH can only manage their own profile")
@@ -67,9 +126,8 @@ public class CoachResource {
     @Path("/{id}/time-windows")
     @RolesAllowed("COACH")
     public Response addTimeWindow(@PathParam("id") Long coachId, @Valid TimeWindowRequest req) {
-        Long callerId = Long.parseLong(identity.getPrincipal().getName());
-        if (!callerId.equals(coachId)) throw new WebApplicationException("Forbidden", 403);
-        TimeWindow tw = timeWindowService.create(coachId, req);
+        currentUser.assertIs(coachId);
+        TimeWindow tw = timeWindowService.create(currentUser.user(), req);
         return Response.status(201).entity(toTimeWindowResponse(tw)).build();
     }
 
@@ -83,8 +141,7 @@ public class CoachResource {
     @RolesAllowed("COACH")
     public Response reorderTimeWindows(@PathParam("id") Long coachId,
                                        List<PriorityUpdate> updates) {
-        Long callerId = Long.parseLong(identity.getPrincipal().getName());
-        if (!callerId.equals(coachId)) throw new WebApplicationException("Forbidden", 403);
+        currentUser.assertIs(coachId);
         timeWindowService.reorder(coachId, updates);
         return Response.noContent().build();
     }
@@ -99,21 +156,74 @@ public class CoachResource {
     @Path("/time-windows/{windowId}")
     @RolesAllowed("COACH")
     public Response deleteTimeWindow(@PathParam("windowId") Long windowId) {
-        Long callerId = Long.parseLong(identity.getPrincipal().getName());
-        timeWindowService.delete(windowId, callerId);
+        timeWindowService.delete(windowId, currentUser.id());
         return Response.noContent().build();
     }
 
-    @Operation(summary = "Get availability slots for a coach on a date", description = "Returns all materialized availability slots for the coach on the given date, with their status (AVAILABLE, BOOKED, EXPIRED). Use the returned slot IDs to create bookings.")
+    @Operation(summary = "Get availability slots for a coach on a date", description = "Returns all availability slots the coach's time windows offer on the given date, with their status (AVAILABLE, BOOKED, EXPIRED). Use the returned slot IDs to create bookings.")
     @APIResponse(responseCode = "200", description = "List of availability slots",
             content = @Content(schema = @Schema(implementation = AvailabilityResponse.class)))
+    @APIResponse(responseCode = "304", description = "Unchanged since the given ETag / Last-Modified")
     @GET
     @Path("/{id}/slots")
-    public List<AvailabilityResponse> getAvailableSlots(
+    public Response getAvailableSlots(
             @PathParam("id") Long coachId,
-            @QueryParam("date") LocalDate date) {
+            @QueryParam("date") LocalDate date,
+            @Context Request request) {
         if (date == null) throw new WebApplicationException("Query parameter 'date' is required", 400);
-        return timeWindowService.getSlotsForDate(coachId, date);
+        return ConditionalGet.respond(request, catalogVersions.current(CatalogVersions.Scope.SLOTS, coachId),
+                () -> Response.ok(timeWindowService.getSlotsForDate(coachId, date)));
+    }
+
+    @Operation(summary = "Get availability slots for a coach over a date range",
+               description = "Returns the coach's slots between 'from' and 'to' (inclusive), grouped by day. Repeat 'status' to keep only slots with those statuses, e.g. status=AVAILABLE. Days without matching slots are omitted. The range is limited to " + MAX_RANGE_DAYS + " days.")
+    @APIResponse(responseCode = "200", description = "Slots grouped by day",
+            content = @Content(schema = @Schema(implementation = DaySlotsResponse.class)))
+    @APIResponse(responseCode = "304", description = "Unchanged since the given ETag / Last-Modified")
+    @APIResponse(responseCode = "400", description = "Missing or invalid date range")
+    @GET
+    @Path("/{id}/slots/range")
+    public Response getSlotsInRange(
+            @PathParam("id") Long coachId,
+            @QueryParam("from") LocalDate from,
+            @QueryParam("to") LocalDate to,
+            @QueryParam("status") Set<AvailabilityStatus> statuses,
+            @Context Request request) {
+        if (from == null || to == null)
+            throw new WebApplicationException("Query parameters 'from' and 'to' are required", 400);
+        if (to.isBefore(from)) throw new WebApplicationException("'to' must be on or after 'from'", 400);
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS)
+            throw new WebApplicationException("Date range must not exceed " + MAX_RANGE_DAYS + " days", 400);
+        return ConditionalGet.respond(request, catalogVersions.current(CatalogVersions.Scope.SLOTS, coachId),
+                () -> Response.ok(timeWindowService.getSlotsInRange(coachId, from, to, statuses)));
+    }
+
+    @Operation(summary = "Find contiguous free time for a coach",
+               description = "Returns the earliest start times between 'from' and 'to' (inclusive) at which the coach has at least 'minutes' contiguous free minutes, each with the consecutive slot IDs to book. The range is limited to " + MAX_SEARCH_DAYS + " days.")
+    @APIResponse(responseCode = "200", description = "Matching runs, earliest first",
+            content = @Content(schema = @Schema(implementation = FreeRunResponse.class)))
+    @APIResponse(responseCode = "400", description = "Missing or invalid parameters")
+    @GET
+    @Path("/{id}/free-runs")
+    public List<FreeRunResponse> findFreeRuns(
+            @PathParam("id") Long coachId,
+            @QueryParam("from") LocalDate from,
+            @QueryParam("to") LocalDate to,
+            @QueryParam("minutes") int minutes,
+            @QueryParam("limit") @DefaultValue("10") int limit) {
+        if (from == null || to == null)
+            throw new WebApplicationException("Query parameters 'from' and 'to' are required", 400);
+        if (to.isBefore(from)) throw new WebApplicationException("'to' must be on or after 'from'", 400);
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_SEARCH_DAYS)
+            throw new WebApplicationException("Date range must not exceed " + MAX_SEARCH_DAYS + " days", 400);
+        if (minutes < 1 || minutes > 24 * 60)
+            throw new WebApplicationException("'minutes' must be between 1 and 1440", 400);
+        if (limit < 1 || limit > 50) throw new WebApplicationException("'limit' must be between 1 and 50", 400);
+        return freeRunService.search(coachId, from, to, minutes, limit);
+    }
+
+    private static String blankToNull(String s) {
+        return s == null || s.isBlank() ? null : s.strip();
     }
 
     private TimeWindowResponse toTimeWindowResponse(TimeWindow tw) {
@@ -1,13 +1,51 @@
 package turtle.coach;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import turtle.coach.dto.CoachAvailabilityResponse;
+import turtle.coach.dto.CoachPage;
+import turtle.coach.dto.CoachResponse;
+import turtle.coach.dto.FreeRunResponse;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class CoachService {
 
-    public List<CoachProfile> listCoaches() {
-        return CoachProfile.listAll();
+    static final int RUNS_PER_COACH = 5;
+
+    @Inject
+    AvailabilityIndex availabilityIndex;
+
+    /** A page of the approved-coach directory, optionally narrowed by a full-text query. */
+    public CoachPage listDirectory(String query, Long afterUserId, int limit) {
+        List<CoachResponse> rows = CoachProfile.listDirectory(query, afterUserId, limit + 1);
+        if (rows.size() <= limit) return new CoachPage(rows, null);
+        List<CoachResponse> items = rows.subList(0, limit);
+        return new CoachPage(items, items.get(limit - 1).id());
+    }
+
+    /** Up to {@code limit} approved coaches with at least {@code minutes} contiguous free minutes in the range, earliest first. */
+    public List<CoachAvailabilityResponse> searchAvailable(LocalDateTime from, LocalDateTime to, int minutes,
+                                                          String service, String specialty, int limit) {
+        Map<Long, List<FreeRunResponse>> runs =
+                availabilityIndex.search(from, to, minutes, service, specialty, limit, RUNS_PER_COACH);
+        if (runs.isEmpty()) return List.of();
+
+        // The index already applied approval and specialty; re-checking them here drops a
+        // coach changed on another instance since this one's index was refreshed
+        Map<Long, CoachProfile> profiles = CoachProfile.listApprovedWithUser(runs.keySet(), specialty).stream()
+                .collect(Collectors.toMap(p -> p.user.id, Function.identity()));
+        return runs.entrySet().stream()
+                .filter(e -> profiles.containsKey(e.getKey()))
+                .map(e -> {
+                    CoachProfile p = profiles.get(e.getKey());
+                    return new CoachAvailabilityResponse(p.user.id, p.user.name, p.specialty, e.getValue());
+                })
+                .toList();
     }
 }
@@ -2,12 +2,15 @@ package turtle.coach;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import turtle.user.AppUser;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
 @Table(name = "coaching_service")
 public class CoachingService extends PanacheEntityBase {
 
@@ -26,6 +29,7 @@ public class CoachingService extends PanacheEntityBase {
     public String description;
 
     @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(
         name = "service_extras",
         joinColumns = @JoinColumn(name = "service_id"),
@@ -34,7 +38,16 @@ public class CoachingService extends PanacheEntityBase {
     public List<CoachingService> extras = new ArrayList<>();
 
     public static List<CoachingService> findByCoach(Long coachId) {
-        return list("coach.id", coachId);
+        return list("coach.id = ?1 ORDER BY id", coachId);
+    }
+
+    /** Every (service id, extra id) pair among the coach's services. */
+    public static List<Object[]> findExtraLinksByCoach(Long coachId) {
+        return getEntityManager().createQuery(
+                "SELECT s.id, e.id FROM CoachingService s JOIN s.extras e WHERE s.coach.id = :coach",
+                Object[].class)
+                .setParameter("coach", coachId)
+                .getResultList();
     }
 
     public static boolean isUsedAsExtra(Long serviceId) {
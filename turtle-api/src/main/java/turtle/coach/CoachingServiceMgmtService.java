@@ -1,9 +1,12 @@
 package turtle.coach;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.WebApplicationException;
 import turtle.coach.dto.CoachingServiceRequest;
+import turtle.coach.event.CoachingServiceChangedEvent;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -11,6 +14,9 @@ import java.util.List;
 @ApplicationScoped
 public class CoachingServiceMgmtService {
 
+    @Inject
+    Event<CoachingServiceChangedEvent> serviceChangedEvent;
+
     @Transactional
     public CoachingService create(Long coachId, CoachingServiceRequest req) {
         CoachingService svc = new CoachingService();
@@ -19,13 +25,10 @@ public class CoachingServiceMgmtService {
         svc.description = req.description();
         svc.extras = resolveExtras(coachId, req.extraServiceIds(), null);
         svc.persist();
+        serviceChangedEvent.fire(new CoachingServiceChangedEvent(coachId));
         return svc;
     }
 
-    public List<CoachingService> listForCoach(Long coachId) {
-        return CoachingService.findByCoach(coachId);
-    }
-
     public CoachingService getById(Long serviceId, Long coachId) {
         CoachingService svc = CoachingService.findById(serviceId);
         if (svc == null) throw new WebApplicationException("Service not found", 404);
@@ -45,6 +48,7 @@ public class CoachingServiceMgmtService {
         if (req.extraServiceIds() != null) {
             svc.extras = resolveExtras(coachId, req.extraServiceIds(), serviceId);
         }
+        serviceChangedEvent.fire(new CoachingServiceChangedEvent(coachId));
         return svc;
     }
 
@@ -66,6 +70,7 @@ public class CoachingServiceMgmtService {
 
         svc.extras.clear();
         svc.delete();
+        serviceChangedEvent.fire(new CoachingServiceChangedEvent(coachId));
     }
 
     private List<CoachingService> resolveExtras(Long coachId, List<Long> extraIds, Long ownerServiceId) {
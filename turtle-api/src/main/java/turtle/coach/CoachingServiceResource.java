@@ -1,11 +1,12 @@
 package turtle.coach;
 
-import io.quarkus.security.identity.SecurityIdentity;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
@@ -15,6 +16,8 @@ import org.eclipse.microprofile.openapi.annotations.security.SecurityRequirement
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import turtle.coach.dto.CoachingServiceRequest;
 import turtle.coach.dto.CoachingServiceResponse;
+import turtle.common.ConditionalGet;
+import turtle.user.CurrentUser;
 
 import java.util.List;
 
@@ -28,16 +31,22 @@ public class CoachingServiceResource {
     CoachingServiceMgmtService coachingServiceMgmtService;
 
     @Inject
-    SecurityIdentity identity;
+    CatalogVersions catalogVersions;
+
+    @Inject
+    ServiceCatalog serviceCatalog;
+
+    @Inject
+    CurrentUser currentUser;
 
     @Operation(summary = "List services for a coach", description = "Returns all services defined by the coach. Public endpoint.")
     @APIResponse(responseCode = "200", description = "List of services",
             content = @Content(schema = @Schema(implementation = CoachingServiceResponse.class)))
+    @APIResponse(responseCode = "304", description = "Unchanged since the given ETag / Last-Modified")
     @GET
-    public List<CoachingServiceResponse> list(@PathParam("coachId") Long coachId) {
-        return coachingServiceMgmtService.listForCoach(coachId).stream()
-                .map(this::toResponse)
-                .toList();
+    public Response list(@PathParam("coachId") Long coachId, @Context Request request) {
+        return ConditionalGet.respond(request, catalogVersions.current(CatalogVersions.Scope.SERVICES, coachId),
+                () -> Response.ok(serviceCatalog.forCoach(coachId).services()));
     }
 
     @Operation(summary = "Create a service (COACH)", description = "COACHes define a named service, optionally with a list of extra services clients can add.")
@@ -49,7 +58,7 @@ public class CoachingServiceResource {
     @POST
     @RolesAllowed("COACH")
     public Response create(@PathParam("coachId") Long coachId, @Valid CoachingServiceRequest req) {
-        assertCallerIs(coachId);
+        currentUser.assertIs(coachId);
         CoachingService svc = coachingServiceMgmtService.create(coachId, req);
         return Response.status(201).entity(toResponse(svc)).build();
     }
@@ -63,7 +72,8 @@ public class CoachingServiceResource {
     @Path("/{serviceId}")
     public CoachingServiceResponse get(@PathParam("coachId") Long coachId,
                                        @PathParam("serviceId") Long serviceId) {
-        return toResponse(coachingServiceMgmtService.getById(serviceId, coachId));
+        CoachingServiceResponse cached = serviceCatalog.forCoach(coachId).find(serviceId);
+        return cached != null ? cached : toResponse(coachingServiceMgmtService.getById(serviceId, coachId));
     }
 
     @Operation(summary = "Update a service (COACH)", description = "Update name, description, and/or extras list. Providing extraServiceIds fully replaces the current extras.")
@@ -79,7 +89,7 @@ public class CoachingServiceResource {
     public CoachingServiceResponse update(@PathParam("coachId") Long coachId,
                                           @PathParam("serviceId") Long serviceId,
                                           @Valid CoachingServiceRequest req) {
-        assertCallerIs(coachId);
+        currentUser.assertIs(coachId);
         return toResponse(coachingServiceMgmtService.update(serviceId, coachId, req));
     }
 
@@ -94,16 +104,11 @@ public class CoachingServiceResource {
     @RolesAllowed("COACH")
     public Response delete(@PathParam("coachId") Long coachId,
                            @PathParam("serviceId") Long serviceId) {
-        assertCallerIs(coachId);
+        currentUser.assertIs(coachId);
         coachingServiceMgmtService.delete(serviceId, coachId);
         return Response.noContent().build();
     }
 
-    private void assertCallerIs(Long coachId) {
-        Long callerId = Long.parseLong(identity.getPrincipal().getName());
-        if (!callerId.equals(coachId)) throw new WebApplicationException("Forbidden", 403);
-    }
-
     private CoachingServiceResponse toResponse(CoachingService svc) {
         List<CoachingServiceResponse.ExtraServiceSummary> extras = svc.extras.stream()
                 .map(e -> new CoachingServiceResponse.ExtraServiceSummary(e.id, e.name, e.description))
@@ -0,0 +1,105 @@
+package turtle.coach;
+
+import turtle.coach.dto.FreeRunResponse;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * The free slots of one coach-day as a minute-of-day bitmap. A set bit means the
+ * minute lies inside a free, effective slot; since effective slots never overlap,
+ * a run of set bits is a run of consecutive bookable slots. The slot boundaries and
+ * ids are kept alongside so a hit can be turned into a bookable request.
+ */
+public final class FreeDay {
+
+    static final FreeDay EMPTY = new FreeDay(new BitSet(0), new int[0], new int[0], new long[0]);
+
+    private final BitSet free;
+    private final int[] starts;
+    private final int[] ends;
+    private final long[] ids;
+
+    private FreeDay(BitSet free, int[] starts, int[] ends, long[] ids) {
+        this.free = free;
+        this.starts = starts;
+        this.ends = ends;
+        this.ids = ids;
+    }
+
+    /** Builds the bitmap from a day's effective slots, as returned by {@link PriorityResolver}. */
+    static FreeDay of(List<Availability> effectiveSlots) {
+        List<Availability> open = effectiveSlots.stream()
+                .filter(a -> a.booking == null)
+                .sorted(Comparator.comparing(a -> a.startsAt))
+                .toList();
+        if (open.isEmpty()) return EMPTY;
+
+        BitSet free = new BitSet(24 * 60);
+        int[] starts = new int[open.size()];
+        int[] ends = new int[open.size()];
+        long[] ids = new long[open.size()];
+        for (int i = 0; i < open.size(); i++) {
+            Availability a = open.get(i);
+            starts[i] = minuteOfDay(a.startsAt);
+            ends[i] = minuteOfDay(a.endsAt);
+            ids[i] = a.id;
+            free.set(starts[i], ends[i]);
+        }
+        return new FreeDay(free, starts, ends, ids);
+    }
+
+    boolean isEmpty() {
+        return starts.length == 0;
+    }
+
+    /** Minutes of day at which free slots start, ascending. */
+    IntStream startMinutes() {
+        return Arrays.stream(starts);
+    }
+
+    /**
+     * Appends, in start order, up to {@code limit} runs of at least {@code minutes}
+     * free minutes that start on a slot boundary no earlier than {@code fromMinute}
+     * and end no later than {@code toMinute}.
+     */
+    int findRuns(LocalDate day, int minutes, int fromMinute, int toMinute, int limit, List<FreeRunResponse> out) {
+        int i = firstStartAtOrAfter(fromMinute);
+        int found = 0;
+        while (i < starts.length && found < limit && starts[i] + minutes <= toMinute) {
+            int start = starts[i];
+            int runEnd = free.nextClearBit(start);
+            if (runEnd - start < minutes) {
+                // No slot starting inside this run can reach the duration either
+                i = firstStartAtOrAfter(runEnd);
+                continue;
+            }
+            int last = i;
+            while (ends[last] - start < minutes) last++;
+            // Later starts can only end later still
+            if (ends[last] > toMinute) break;
+            List<Long> slotIds = new ArrayList<>(last - i + 1);
+            for (int k = i; k <= last; k++) slotIds.add(ids[k]);
+            out.add(new FreeRunResponse(day.atStartOfDay().plusMinutes(start),
+                    day.atStartOfDay().plusMinutes(ends[last]), slotIds));
+            found++;
+            i++;
+        }
+        return found;
+    }
+
+    private int firstStartAtOrAfter(int minute) {
+        int i = Arrays.binarySearch(starts, minute);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    private static int minuteOfDay(LocalDateTime t) {
+        return t.getHour() * 60 + t.getMinute();
+    }
+}
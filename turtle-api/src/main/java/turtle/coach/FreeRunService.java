@@ -0,0 +1,78 @@
+package turtle.coach;
+
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import io.quarkus.cache.CompositeCacheKey;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import turtle.coach.dto.FreeRunResponse;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Answers "when does a coach have at least N contiguous free minutes" from cached
+ * per-day {@link FreeDay} bitmaps. Missing days are built together, with one query
+ * for the coach's windows and one for its stored slots over the missing range.
+ */
+@ApplicationScoped
+public class FreeRunService {
+
+    public static final String CACHE_NAME = "coach-free-days";
+
+    @Inject
+    @CacheName(CACHE_NAME)
+    Cache cache;
+
+    public List<FreeRunResponse> search(Long coachId, LocalDate from, LocalDate to, int minutes, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate first = from.isBefore(now.toLocalDate()) ? now.toLocalDate() : from;
+        List<FreeRunResponse> runs = new ArrayList<>();
+        if (first.isAfter(to)) return runs;
+
+        Map<LocalDate, FreeDay> days = load(coachId, first, to);
+        for (LocalDate day = first; !day.isAfter(to) && runs.size() < limit; day = day.plusDays(1)) {
+            // Runs must not start in the past; minutes already begun count as gone
+            int fromMinute = day.equals(now.toLocalDate())
+                    ? now.getHour() * 60 + now.getMinute() + 1 : 0;
+            days.get(day).findRuns(day, minutes, fromMinute, 24 * 60, limit - runs.size(), runs);
+        }
+        return runs;
+    }
+
+    private Map<LocalDate, FreeDay> load(Long coachId, LocalDate from, LocalDate to) {
+        CaffeineCache days = cache.as(CaffeineCache.class);
+        Map<LocalDate, FreeDay> result = new HashMap<>();
+        List<LocalDate> missing = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            CompletableFuture<FreeDay> cached = days.getIfPresent(new CompositeCacheKey(coachId, day));
+            if (cached != null) result.put(day, cached.join());
+            else missing.add(day);
+        }
+        if (missing.isEmpty()) return result;
+
+        LocalDate lo = missing.get(0);
+        LocalDate hi = missing.get(missing.size() - 1);
+        List<TimeWindow> windows = TimeWindow.findByCoachBetween(coachId, lo, hi);
+        Map<LocalDate, List<Availability>> stored = new HashMap<>();
+        for (Availability a : Availability.findByCoachBetween(coachId, lo, hi)) {
+            stored.computeIfAbsent(a.startsAt.toLocalDate(), d -> new ArrayList<>()).add(a);
+        }
+        for (LocalDate day : missing) {
+            List<TimeWindow> active = windows.stream()
+                    .filter(tw -> !day.isBefore(tw.startDate) && !day.isAfter(tw.endDate))
+                    .toList();
+            FreeDay freeDay = FreeDay.of(PriorityResolver.effectiveSlots(
+                    active, stored.getOrDefault(day, List.of()), day));
+            days.put(new CompositeCacheKey(coachId, day), CompletableFuture.completedFuture(freeDay));
+            result.put(day, freeDay);
+        }
+        return result;
+    }
+}
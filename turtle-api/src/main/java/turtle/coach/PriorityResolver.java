@@ -0,0 +1,130 @@
+package turtle.coach;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resolves overlapping time windows into the effective, non-overlapping slot set
+ * of a coach's day. Windows are ranked by priority (higher wins); on equal priority
+ * the smallest window id wins. A slot is offered only if no higher-ranked window
+ * active on that day covers any part of it, and it does not overlap a slot that is
+ * already booked. Booked slots are always kept, even when a later change shadows
+ * their window.
+ *
+ * <p>Windows are applied in rank order against an interval map of the time already
+ * claimed by higher-ranked windows, and slots are checked against a second map of the
+ * booked time, so a day resolves in O(n log n) for n windows, booked slots and
+ * computed slots together.
+ */
+public final class PriorityResolver {
+
+    static final Comparator<TimeWindow> BY_RANK = Comparator
+            .comparingInt((TimeWindow tw) -> tw.priority).reversed()
+            .thenComparing(tw -> tw.id);
+
+    private PriorityResolver() {}
+
+    /**
+     * Computes the effective slots of one day.
+     *
+     * @param windows the coach's windows active on {@code date}
+     * @param stored  the coach's stored slot rows starting on {@code date}
+     */
+    public static List<Availability> effectiveSlots(Collection<TimeWindow> windows,
+                                                    Collection<Availability> stored, LocalDate date) {
+        Map<Long, Availability> storedById = new HashMap<>();
+        Coverage<LocalDateTime> booked = new Coverage<>();
+        for (Availability a : stored) {
+            storedById.put(a.id, a);
+            if (a.booking != null) booked.add(a.startsAt, a.endsAt);
+        }
+
+        List<Availability> result = new ArrayList<>();
+        Coverage<LocalTime> covered = new Coverage<>();
+        for (TimeWindow tw : windows.stream().sorted(BY_RANK).toList()) {
+            for (Availability slot : tw.slotsOn(date)) {
+                Availability s = storedById.remove(slot.id);
+                if (s != null) {
+                    // Keep the computed slot: it carries the already loaded window and service
+                    slot.booking = s.booking;
+                    result.add(slot);
+                } else if (!covered.overlaps(slot.startsAt.toLocalTime(), slot.endsAt.toLocalTime())
+                        && !booked.overlaps(slot.startsAt, slot.endsAt)) {
+                    result.add(slot);
+                }
+            }
+            covered.add(tw.dailyStartTime, tw.dailyEndTime);
+        }
+        // Stored slots no window produces any more (legacy rows)
+        result.addAll(storedById.values());
+        result.sort(Comparator.comparing(a -> a.startsAt));
+        return result;
+    }
+
+    /**
+     * Returns whether a computed slot is offered, i.e. no other window in
+     * {@code windows} that outranks the slot's window covers part of it.
+     */
+    public static boolean isOffered(Availability slot, Collection<TimeWindow> windows) {
+        LocalDate date = slot.startsAt.toLocalDate();
+        LocalTime start = slot.startsAt.toLocalTime();
+        LocalTime end = slot.endsAt.toLocalTime();
+        for (TimeWindow other : windows) {
+            if (BY_RANK.compare(other, slot.timeWindow) < 0
+                    && !date.isBefore(other.startDate) && !date.isAfter(other.endDate)
+                    && other.dailyStartTime.isBefore(end) && other.dailyEndTime.isAfter(start)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean overlapsAny(Availability slot, Collection<Availability> others) {
+        for (Availability other : others) {
+            if (!other.id.equals(slot.id) && overlaps(slot.startsAt, slot.endsAt, other.startsAt, other.endsAt)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean overlaps(LocalDateTime aStart, LocalDateTime aEnd, LocalDateTime bStart, LocalDateTime bEnd) {
+        return aStart.isBefore(bEnd) && bStart.isBefore(aEnd);
+    }
+
+    /** Disjoint, merged [start, end) intervals keyed by start. */
+    private static final class Coverage<T extends Comparable<? super T>> {
+
+        private final TreeMap<T, T> intervals = new TreeMap<>();
+
+        boolean overlaps(T start, T end) {
+            Map.Entry<T, T> before = intervals.floorEntry(start);
+            if (before != null && before.getValue().compareTo(start) > 0) return true;
+            Map.Entry<T, T> after = intervals.higherEntry(start);
+            return after != null && after.getKey().compareTo(end) < 0;
+        }
+
+        void add(T start, T end) {
+            Map.Entry<T, T> before = intervals.floorEntry(start);
+            if (before != null && before.getValue().compareTo(start) >= 0) {
+                start = before.getKey();
+                if (before.getValue().compareTo(end) > 0) end = before.getValue();
+            }
+            Map.Entry<T, T> next = intervals.ceilingEntry(start);
+            while (next != null && next.getKey().compareTo(end) <= 0) {
+                if (next.getValue().compareTo(end) > 0) end = next.getValue();
+                intervals.remove(next.getKey());
+                next = intervals.ceilingEntry(start);
+            }
+            intervals.put(start, end);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package turtle.coach;
+
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CacheResult;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import turtle.coach.event.CoachingServiceChangedEvent;
+
+/**
+ * Per-coach {@link CoachCatalog} snapshots, built with one query for the services
+ * and one for their extras links. A coach's snapshot is dropped once a change to
+ * its services commits and is rebuilt by the next read.
+ */
+@ApplicationScoped
+public class ServiceCatalog {
+
+    public static final String CACHE_NAME = "service-catalog";
+
+    @Inject
+    @CacheName(CACHE_NAME)
+    Cache cache;
+
+    @CacheResult(cacheName = CACHE_NAME)
+    public CoachCatalog forCoach(Long coachId) {
+        return CoachCatalog.of(coachId, CoachingService.findByCoach(coachId),
+                CoachingService.findExtraLinksByCoach(coachId));
+    }
+
+    void onServiceChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) CoachingServiceChangedEvent e) {
+        cache.invalidate(e.coachId()).await().indefinitely();
+    }
+}
@@ -0,0 +1,65 @@
+package turtle.coach;
+
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CompositeCacheKey;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import turtle.booking.Booking;
+import turtle.booking.event.BookingCancelledEvent;
+import turtle.booking.event.BookingCreatedEvent;
+import turtle.booking.event.BookingRejectedEvent;
+import turtle.coach.event.TimeWindowChangedEvent;
+
+import java.util.List;
+
+/**
+ * Evicts cached per-day slot data (slot lists and free-time bitmaps) once a change
+ * is committed. Booking changes evict only the days their slots fall on; time-window
+ * changes evict the whole coach.
+ */
+@ApplicationScoped
+public class SlotCacheInvalidator {
+
+    public static final String CACHE_NAME = "coach-slots";
+
+    @Inject
+    @CacheName(CACHE_NAME)
+    Cache slotCache;
+
+    @Inject
+    @CacheName(FreeRunService.CACHE_NAME)
+    Cache freeDayCache;
+
+    void onCreated(@Observes(during = TransactionPhase.AFTER_SUCCESS) BookingCreatedEvent e) {
+        evictBookingDays(e.booking());
+    }
+
+    void onRejected(@Observes(during = TransactionPhase.AFTER_SUCCESS) BookingRejectedEvent e) {
+        evictBookingDays(e.booking());
+    }
+
+    void onCancelled(@Observes(during = TransactionPhase.AFTER_SUCCESS) BookingCancelledEvent e) {
+        evictBookingDays(e.booking());
+    }
+
+    void onTimeWindowChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) TimeWindowChangedEvent e) {
+        for (Cache cache : List.of(slotCache, freeDayCache)) {
+            cache.invalidateIf(key -> key instanceof CompositeCacheKey k
+                    && e.coachId().equals(k.getKeyElements()[0])).await().indefinitely();
+        }
+    }
+
+    private void evictBookingDays(Booking b) {
+        b.slots.stream()
+                .map(s -> s.startsAt.toLocalDate())
+                .distinct()
+                .forEach(day -> {
+                    CompositeCacheKey key = new CompositeCacheKey(b.coach.id, day);
+                    slotCache.invalidate(key).await().indefinitely();
+                    freeDayCache.invalidate(key).await().indefinitely();
+                });
+    }
+}
@@ -5,8 +5,13 @@ import jakarta.persistence.*;
 import turtle.user.AppUser;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 @Entity
@@ -46,11 +51,89 @@ public class TimeWindow extends PanacheEntityBase {
     @JoinColumn(name = "service_id")
     public CoachingService service;
 
+    public int slotsPerDay() {
+        return (int) (Duration.between(dailyStartTime, dailyEndTime).toMinutes() / unitOfWorkMinutes);
+    }
+
+    public long slotCount() {
+        return (ChronoUnit.DAYS.between(startDate, endDate) + 1) * slotsPerDay();
+    }
+
+    /**
+     * Computes the virtual slot with the given id, or null when the id does not
+     * address a slot inside this window. The returned Availability is transient.
+     */
+    public Availability slotAt(Long slotId) {
+        if (!id.equals(Availability.windowIdOf(slotId))) return null;
+        int index = Availability.slotIndexOf(slotId);
+        if (index >= slotCount()) return null;
+
+        int perDay = slotsPerDay();
+        LocalDate day = startDate.plusDays(index / perDay);
+        LocalTime start = dailyStartTime.plusMinutes((long) (index % perDay) * unitOfWorkMinutes);
+
+        Availability slot = new Availability();
+        slot.id = slotId;
+        slot.coach = coach;
+        slot.timeWindow = this;
+        slot.startsAt = LocalDateTime.of(day, start);
+        slot.endsAt = slot.startsAt.plusMinutes(unitOfWorkMinutes);
+        return slot;
+    }
+
+    /** Computes the virtual slots this window offers on the given date, in start order. */
+    public List<Availability> slotsOn(LocalDate date) {
+        if (date.isBefore(startDate) || date.isAfter(endDate)) return List.of();
+        int perDay = slotsPerDay();
+        int first = (int) ChronoUnit.DAYS.between(startDate, date) * perDay;
+        List<Availability> slots = new ArrayList<>(perDay);
+        for (int i = 0; i < perDay; i++) {
+            slots.add(slotAt(Availability.slotId(id, first + i)));
+        }
+        return slots;
+    }
+
     public static List<TimeWindow> findByCoach(Long coachId) {
-        return list("coach.id", coachId);
+        return list("FROM TimeWindow tw LEFT JOIN FETCH tw.service WHERE tw.coach.id = ?1", coachId);
+    }
+
+    /** Loads windows together with their coach and service; allowed extras come from the {@link ServiceCatalog}. */
+    public static List<TimeWindow> findByIdsForBooking(Collection<Long> ids) {
+        return getEntityManager().createQuery(
+                "SELECT tw FROM TimeWindow tw " +
+                "JOIN FETCH tw.coach " +
+                "LEFT JOIN FETCH tw.service " +
+                "WHERE tw.id IN :ids",
+                TimeWindow.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    /** Loads every coach's windows active on {@code date}, with their service. */
+    /** Windows active on {@code date} whose coach is approved. */
+    public static List<TimeWindow> findActiveOfApprovedCoaches(LocalDate date) {
+        return list("FROM TimeWindow tw LEFT JOIN FETCH tw.service WHERE tw.startDate <= ?1 AND tw.endDate >= ?1 " +
+                "AND tw.coach.id IN (SELECT p.user.id FROM CoachProfile p WHERE p.status = ?2)",
+                date, CoachStatus.APPROVED);
+    }
+
+    public static List<TimeWindow> findActiveOn(LocalDate date, Collection<Long> coachIds) {
+        return list("FROM TimeWindow tw LEFT JOIN FETCH tw.service " +
+                "WHERE tw.startDate <= ?1 AND tw.endDate >= ?1 AND tw.coach.id IN ?2", date, coachIds);
+    }
+
+    public static List<TimeWindow> findByCoachBetween(Long coachId, LocalDate from, LocalDate to) {
+        return list("coach.id = ?1 AND startDate <= ?3 AND endDate >= ?2", coachId, from, to);
     }
 
     public static List<TimeWindow> findByCoachForDate(Long coachId, LocalDate date) {
-        return list("coach.id = ?1 AND startDate <= ?2 AND endDate >= ?2", coachId, date);
+        return getEntityManager().createQuery(
+                "SELECT tw FROM TimeWindow tw " +
+                "LEFT JOIN FETCH tw.service " +
+                "WHERE tw.coach.id = :coach AND tw.startDate <= :date AND tw.endDate >= :date",
+                TimeWindow.class)
+                .setParameter("coach", coachId)
+                .setParameter("date", date)
+                .getResultList();
     }
 }
@@ -1,26 +1,37 @@
 package turtle.coach;
 
+import io.quarkus.cache.CacheResult;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.WebApplicationException;
 import turtle.coach.dto.AvailabilityResponse;
+import turtle.coach.dto.DaySlotsResponse;
 import turtle.coach.dto.TimeWindowRequest;
 import turtle.coach.dto.TimeWindowResponse;
+import turtle.coach.event.TimeWindowChangedEvent;
 import turtle.user.AppUser;
 
 import turtle.coach.dto.PriorityUpdate;
 
 import java.time.Duration;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 @ApplicationScoped
 public class TimeWindowService {
 
+    @Inject
+    Event<TimeWindowChangedEvent> timeWindowChangedEvent;
+
     @Transactional
-    public TimeWindow create(Long coachId, TimeWindowRequest req) {
+    public TimeWindow create(AppUser coach, TimeWindowRequest req) {
         if (req.endDate().isBefore(req.startDate())) {
             throw new WebApplicationException("endDate must be >= startDate", 400);
         }
@@ -32,13 +43,16 @@ public class TimeWindowService {
             throw new WebApplicationException("unitOfWorkMinutes exceeds the daily window duration", 400);
         }
 
-        AppUser coach = AppUser.findById(coachId);
+        long days = ChronoUnit.DAYS.between(req.startDate(), req.endDate()) + 1;
+        if (days * (windowMinutes / req.unitOfWorkMinutes()) > Availability.MAX_SLOTS_PER_WINDOW) {
+            throw new WebApplicationException("Time window produces too many slots; shorten the range or enlarge the unit", 400);
+        }
 
         CoachingService service = null;
         if (req.serviceId() != null) {
             service = CoachingService.findById(req.serviceId());
             if (service == null) throw new WebApplicationException("Service not found", 404);
-            if (!service.coach.id.equals(coachId))
+            if (!service.coach.id.equals(coach.id))
                 throw new WebApplicationException("Service does not belong to this coach", 403);
         }
 
@@ -54,22 +68,7 @@ public class TimeWindowService {
         tw.service = service;
         tw.persist();
 
-        // Materialize all availability slots for every day in the window range
-        LocalDate cursor = req.startDate();
-        while (!cursor.isAfter(req.endDate())) {
-            LocalTime slotStart = req.dailyStartTime();
-            while (!slotStart.plusMinutes(req.unitOfWorkMinutes()).isAfter(req.dailyEndTime())) {
-                Availability slot = new Availability();
-                slot.coach = coach;
-                slot.timeWindow = tw;
-                slot.startsAt = LocalDateTime.of(cursor, slotStart);
-                slot.endsAt = slot.startsAt.plusMinutes(req.unitOfWorkMinutes());
-                slot.persist();
-                slotStart = slotStart.plusMinutes(req.unitOfWorkMinutes());
-            }
-            cursor = cursor.plusDays(1);
-        }
-
+        timeWindowChangedEvent.fire(new TimeWindowChangedEvent(coach.id));
         return tw;
     }
 
@@ -77,8 +76,14 @@ public class TimeWindowService {
         return TimeWindow.findByCoach(coachId);
     }
 
+    @CacheResult(cacheName = SlotCacheInvalidator.CACHE_NAME)
     public List<AvailabilityResponse> getSlotsForDate(Long coachId, LocalDate date) {
-        return Availability.findByCoachOnDateWithService(coachId, date).stream()
+        List<Availability> slots = PriorityResolver.effectiveSlots(
+                TimeWindow.findByCoachForDate(coachId, date),
+                Availability.findByCoachOnDate(coachId, date),
+                date);
+
+        return slots.stream()
                 .map(a -> {
                     Long serviceId = (a.timeWindow != null && a.timeWindow.service != null)
                             ? a.timeWindow.service.id : null;
@@ -89,6 +94,18 @@ public class TimeWindowService {
                 .toList();
     }
 
+    /** Returns the coach's slots between two dates (inclusive), grouped by day. */
+    public List<DaySlotsResponse> getSlotsInRange(Long coachId, LocalDate from, LocalDate to,
+                                                  Set<AvailabilityStatus> statuses) {
+        Map<LocalDate, List<AvailabilityResponse>> byDay = new TreeMap<>();
+        for (AvailabilityResponse slot : Availability.findSlotsInRange(coachId, from, to, statuses)) {
+            byDay.computeIfAbsent(slot.startsAt().toLocalDate(), d -> new ArrayList<>()).add(slot);
+        }
+        return byDay.entrySet().stream()
+                .map(e -> new DaySlotsResponse(e.getKey(), e.getValue()))
+                .toList();
+    }
+
     @Transactional
     public void reorder(Long coachId, List<PriorityUpdate> updates) {
         for (PriorityUpdate u : updates) {
@@ -98,6 +115,7 @@ public class TimeWindowService {
             tw.priority = u.priority();
             tw.persist();
         }
+        timeWindowChangedEvent.fire(new TimeWindowChangedEvent(coachId));
     }
 
     @Transactional
@@ -106,13 +124,13 @@ public class TimeWindowService {
         if (tw == null) throw new WebApplicationException("Time window not found", 404);
         if (!tw.coach.id.equals(coachId)) throw new WebApplicationException("Forbidden", 403);
 
-        boolean hasBookings = Availability.<Availability>list(
-                "timeWindow.id = ?1 AND booking IS NOT NULL", windowId)
-                .stream().anyMatch(a -> a.booking != null);
+        boolean hasBookings = Availability.count(
+                "timeWindow.id = ?1 AND booking IS NOT NULL", windowId) > 0;
         if (hasBookings) throw new WebApplicationException(
                 "Cannot delete a time window with active bookings", 409);
 
         Availability.delete("timeWindow.id", windowId);
         tw.delete();
+        timeWindowChangedEvent.fire(new TimeWindowChangedEvent(coachId));
     }
 }
@@ -0,0 +1,5 @@
+package turtle.coach.dto;
+
+import java.util.List;
+
+public record CoachAvailabilityResponse(Long id, String name, String specialty, List<FreeRunResponse> runs) {}
@@ -0,0 +1,6 @@
+package turtle.coach.dto;
+
+import java.util.List;
+
+/** One page of the coach directory; {@code nextCursor} is null on the last page. */
+public record CoachPage(List<CoachResponse> items, Long nextCursor) {}
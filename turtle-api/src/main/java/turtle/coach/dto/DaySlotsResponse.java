@@ -0,0 +1,6 @@
+package turtle.coach.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record DaySlotsResponse(LocalDate date, List<AvailabilityResponse> slots) {}
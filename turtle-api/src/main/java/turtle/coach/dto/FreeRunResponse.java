@@ -0,0 +1,6 @@
+package turtle.coach.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record FreeRunResponse(LocalDateTime startsAt, LocalDateTime endsAt, List<Long> availabilityIds) {}
@@ -0,0 +1,3 @@
+package turtle.coach.event;
+
+public record TimeWindowChangedEvent(Long coachId) {}
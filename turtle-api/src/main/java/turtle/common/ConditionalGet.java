@@ -0,0 +1,35 @@
+package turtle.common;
+
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import turtle.coach.CatalogVersions;
+
+import java.util.function.Supplier;
+
+/**
+ * Answers a GET from a version stamp: 304 when the client's If-None-Match or
+ * If-Modified-Since still matches, otherwise the response built by {@code ok}, with ETag and Last-Modified.
+ * The stamp must be taken before the body is read, so a concurrent change can only
+ * pair new data with an old tag, never the reverse.
+ */
+public final class ConditionalGet {
+
+    private static final CacheControl REVALIDATE = new CacheControl();
+
+    static {
+        REVALIDATE.setNoCache(true);
+        REVALIDATE.setNoTransform(false);
+    }
+
+    private ConditionalGet() {}
+
+    public static Response respond(Request request, CatalogVersions.Stamp stamp, Supplier<Response.ResponseBuilder> ok) {
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(stamp.lastModifiedDate(), stamp.etag());
+        Response.ResponseBuilder response = notModified != null ? notModified : ok.get();
+        return response.tag(stamp.etag())
+                .lastModified(stamp.lastModifiedDate())
+                .cacheControl(REVALIDATE)
+                .build();
+    }
+}
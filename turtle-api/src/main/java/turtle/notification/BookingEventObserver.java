@@ -1,61 +1,106 @@
 package turtle.notification;
 
+import io.quarkus.logging.Log;
+import io.quarkus.mailer.Mail;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Observes;
-import jakarta.enterprise.event.TransactionPhase;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import turtle.booking.Booking;
 import turtle.booking.event.BookingApprovedEvent;
 import turtle.booking.event.BookingCreatedEvent;
 import turtle.booking.event.BookingRejectedEvent;
 import turtle.chat.event.ChatMessageSentEvent;
 import turtle.chat.ChatMessage;
+import turtle.user.AppUser;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Turns booking and chat events into notifications. Messages are rendered here and
+ * written to the outbox inside the transaction that fired the event, so they commit
+ * (or roll back) together with the change; {@link OutboxRelay} delivers them.
+ */
 @ApplicationScoped
 public class BookingEventObserver {
 
-    @Inject
-    NotificationService notifications;
-
     @Inject
     EmailNotificationService emailNotifications;
 
-    void onCreated(@Observes(during = TransactionPhase.AFTER_SUCCESS) BookingCreatedEvent e) {
+    @ConfigProperty(name = "turtle.notifications.chat-digest-window", defaultValue = "60S")
+    Duration chatDigestWindow;
+
+    void onCreated(@Observes BookingCreatedEvent e) {
         Booking b = e.booking();
-        notifications.send(
-                b.coach.phone,
-                "New booking request from " + b.client.name
-                        + " for " + b.startsAt()
-                        + ". Log in to approve or reject.");
-        emailNotifications.sendBookingCreated(b);
+        BookingNotification n = BookingNotification.of(b);
+        whatsApp(b.coach.phone, Templates.bookingCreatedWhatsApp(n).render());
+        email(emailNotifications.bookingCreated(b.coach.email, n));
     }
 
-    void onApproved(@Observes(during = TransactionPhase.AFTER_SUCCESS) BookingApprovedEvent e) {
+    void onApproved(@Observes BookingApprovedEvent e) {
         Booking b = e.booking();
-        notifications.send(
-                b.client.phone,
-                "Your session with " + b.coach.name
-                        + " on " + b.startsAt()
-                        + " has been APPROVED. You can now chat with your coach.");
-        emailNotifications.sendBookingApproved(b);
+        BookingNotification n = BookingNotification.of(b);
+        whatsApp(b.client.phone, Templates.bookingApprovedWhatsApp(n).render());
+        email(emailNotifications.bookingApproved(b.client.email, n));
     }
 
-    void onRejected(@Observes(during = TransactionPhase.AFTER_SUCCESS) BookingRejectedEvent e) {
+    void onRejected(@Observes BookingRejectedEvent e) {
         Booking b = e.booking();
-        notifications.send(
-                b.client.phone,
-                "Your booking request on " + b.startsAt()
-                        + " was not accepted. Please choose another slot.");
-        emailNotifications.sendBookingRejected(b);
+        BookingNotification n = BookingNotification.of(b);
+        whatsApp(b.client.phone, Templates.bookingRejectedWhatsApp(n).render());
+        email(emailNotifications.bookingRejected(b.client.email, n));
     }
 
-    void onChatMessage(@Observes(during = TransactionPhase.AFTER_SUCCESS) ChatMessageSentEvent e) {
+    /**
+     * Chat lines are not sent one by one: they are appended to the recipient's digest
+     * for the booking, which goes out {@code chat-digest-window} after its first line
+     * (and is skipped if the recipient reads the chat in the meantime).
+     */
+    void onChatMessage(@Observes ChatMessageSentEvent e) {
         ChatMessage msg = e.message();
         Booking booking = msg.booking;
         // Notify the other participant
         boolean senderIsClient = msg.sender.id.equals(booking.client.id);
-        String recipientPhone = senderIsClient ? booking.coach.phone : booking.client.phone;
-        notifications.send(recipientPhone, msg.sender.name + ": " + msg.content);
-        emailNotifications.sendChatMessage(msg);
+        AppUser recipient = senderIsClient ? booking.coach : booking.client;
+        LocalDateTime dueAt = msg.sentAt.plus(chatDigestWindow);
+        ChatNotification c = ChatNotification.of(msg);
+
+        if (recipient.phone != null && !recipient.phone.isBlank()) {
+            OutboxMessage.appendToDigest(OutboxChannel.WHATSAPP, digestKey(booking, recipient, OutboxChannel.WHATSAPP),
+                    booking.id, recipient.id, recipient.phone, null, null,
+                    Templates.chatLineWhatsApp(c).render(), "\n", dueAt);
+        }
+        Mail mail = emailNotifications.chatMessage(recipient.email, c);
+        if (mail != null) {
+            OutboxMessage.appendToDigest(OutboxChannel.EMAIL, digestKey(booking, recipient, OutboxChannel.EMAIL),
+                    booking.id, recipient.id, mail.getTo().get(0), mail.getSubject(),
+                    EmailNotificationService.chatDigestSubject(c.senderName()), mail.getHtml(), "", dueAt);
+        }
+    }
+
+    private static String digestKey(Booking booking, AppUser recipient, OutboxChannel channel) {
+        return "chat:" + booking.id + ":" + recipient.id + ":" + channel;
+    }
+
+    private void whatsApp(String phone, String message) {
+        if (phone == null || phone.isBlank()) {
+            Log.warnf("Skipping WhatsApp notification: phone number is null or blank");
+            return;
+        }
+        enqueue(OutboxChannel.WHATSAPP, phone, null, message);
+    }
+
+    private void email(Mail mail) {
+        if (mail != null) enqueue(OutboxChannel.EMAIL, mail.getTo().get(0), mail.getSubject(), mail.getHtml());
+    }
+
+    private static void enqueue(OutboxChannel channel, String recipient, String subject, String body) {
+        OutboxMessage m = new OutboxMessage();
+        m.channel = channel;
+        m.recipient = recipient;
+        m.subject = subject;
+        m.body = body;
+        m.persist();
     }
 }
@@ -0,0 +1,13 @@
+package turtle.notification;
+
+import turtle.booking.Booking;
+
+import java.time.LocalDateTime;
+
+/** What booking notifications show, read once per event and shared by every channel. */
+public record BookingNotification(String clientName, String coachName, LocalDateTime startsAt) {
+
+    public static BookingNotification of(Booking b) {
+        return new BookingNotification(b.client.name, b.coach.name, b.startsAt());
+    }
+}
@@ -0,0 +1,11 @@
+package turtle.notification;
+
+import turtle.chat.ChatMessage;
+
+/** What a chat line notification shows, shared by every channel. */
+public record ChatNotification(String senderName, String content) {
+
+    public static ChatNotification of(ChatMessage msg) {
+        return new ChatNotification(msg.sender.name, msg.content);
+    }
+}
@@ -1,77 +1,71 @@
 package turtle.notification;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.quarkus.logging.Log;
 import io.quarkus.mailer.Mail;
-import io.quarkus.mailer.Mailer;
+import io.quarkus.mailer.reactive.ReactiveMailer;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import turtle.booking.Booking;
-import turtle.chat.ChatMessage;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @ApplicationScoped
 public class EmailNotificationService {
 
     @Inject
-    Mailer mailer;
+    ReactiveMailer reactiveMailer;
+
+    @Inject
+    MeterRegistry registry;
+
+    public Mail bookingCreated(String to, BookingNotification n) {
+        return mail(to, "New booking request from " + n.clientName(), Templates.bookingCreatedEmail(n).render());
+    }
 
-    public void sendBookingCreated(Booking b) {
-        send(
-            b.coach.email,
-            "New booking request from " + b.client.name,
-            "<p>You have a new booking request from <strong>" + b.client.name + "</strong>"
-                + " for <strong>" + b.startsAt() + "</strong>.</p>"
-                + "<p>Log in to approve or reject.</p>"
-        );
+    public Mail bookingApproved(String to, BookingNotification n) {
+        return mail(to, "Your session with " + n.coachName() + " is confirmed", Templates.bookingApprovedEmail(n).render());
     }
 
-    public void sendBookingApproved(Booking b) {
-        send(
-            b.client.email,
-            "Your session with " + b.coach.name + " is confirmed",
-            "<p>Your session with <strong>" + b.coach.name + "</strong>"
-                + " on <strong>" + b.startsAt() + "</strong>"
-                + " has been <strong>APPROVED</strong>.</p>"
-                + "<p>You can now chat with your coach.</p>"
-        );
+    public Mail bookingRejected(String to, BookingNotification n) {
+        return mail(to, "Booking request not accepted", Templates.bookingRejectedEmail(n).render());
     }
 
-    public void sendBookingRejected(Booking b) {
-        send(
-            b.client.email,
-            "Booking request not accepted",
-            "<p>Your booking request for <strong>" + b.startsAt() + "</strong>"
-                + " was not accepted by the coach.</p>"
-                + "<p>Please choose another available slot.</p>"
-        );
+    public Mail chatMessage(String to, ChatNotification c) {
+        return mail(to, "New message from " + c.senderName(), Templates.chatLineEmail(c).render());
     }
 
-    public void sendChatMessage(ChatMessage msg) {
-        Booking booking = msg.booking;
-        boolean senderIsClient = msg.sender.id.equals(booking.client.id);
-        String recipientEmail = senderIsClient ? booking.coach.email : booking.client.email;
-        send(
-            recipientEmail,
-            "New message from " + msg.sender.name,
-            "<p><strong>" + msg.sender.name + "</strong> wrote:</p>"
-                + "<blockquote>" + escapeHtml(msg.content) + "</blockquote>"
-        );
+    /** Subject of a chat digest once it holds more than one message. */
+    public static String chatDigestSubject(String senderName) {
+        return "New messages from " + senderName;
     }
 
-    private void send(String to, String subject, String htmlBody) {
+    /**
+     * Sends the mails concurrently on the reactive mailer, which spreads them over its
+     * pooled, kept-alive (and pipelined) SMTP connections instead of opening one session
+     * per mail. Never blocks; returns one future per mail, in order.
+     */
+    public List<CompletableFuture<Void>> deliverAll(List<Mail> mails) {
+        Timer.Sample flush = Timer.start(registry);
+        registry.summary("turtle.mail.flush.size").record(mails.size());
+        List<CompletableFuture<Void>> results = mails.stream()
+                .map(mail -> reactiveMailer.send(mail)
+                        .onItemOrFailure().invoke((ignored, failure) -> registry.counter("turtle.mail.sent",
+                                "outcome", failure == null ? "success" : "failure").increment())
+                        .subscribeAsCompletionStage())
+                .toList();
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                .whenComplete((ignored, failure) -> flush.stop(registry.timer("turtle.mail.flush")));
+        return results;
+    }
+
+    /** Builds the mail, or returns null when there is no address to send it to. */
+    private static Mail mail(String to, String subject, String htmlBody) {
         if (to == null || to.isBlank()) {
             Log.warnf("Skipping email notification: recipient address is null or blank");
-            return;
-        }
-        try {
-            mailer.send(Mail.withHtml(to, subject, htmlBody));
-        } catch (Exception e) {
-            Log.warnf("Email notification failed for %s: %s", to, e.getMessage());
+            return null;
         }
-    }
-
-    private static String escapeHtml(String s) {
-        return s.replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;");
+        return Mail.withHtml(to, subject, htmlBody);
     }
 }
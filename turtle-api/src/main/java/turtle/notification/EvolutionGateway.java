@@ -0,0 +1,65 @@
+package turtle.notification;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.smallrye.faulttolerance.api.CircuitBreakerName;
+import io.smallrye.faulttolerance.api.RateLimit;
+import io.smallrye.faulttolerance.api.RateLimitType;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
+import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
+import org.eclipse.microprofile.faulttolerance.Timeout;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+
+import java.time.temporal.ChronoUnit;
+
+/**
+ * The only way to call the Evolution API. A hanging or failing gateway costs a
+ * bounded amount of time and concurrency here instead of piling up callers:
+ * <ul>
+ *   <li>rate limit: a smoothed token rate per application instance</li>
+ *   <li>bulkhead: caps concurrent calls, extra callers fail at once</li>
+ *   <li>timeout: on top of the REST client's connect and read timeouts</li>
+ *   <li>circuit breaker: after a run of failures calls fail fast for a while</li>
+ * </ul>
+ * Every limit can be tuned through MicroProfile Fault Tolerance config, e.g.
+ * {@code turtle.notification.EvolutionGateway/sendText/Bulkhead/value}. Failures
+ * propagate; {@link OutboxRelay} retries them later.
+ */
+@ApplicationScoped
+public class EvolutionGateway {
+
+    public static final String CIRCUIT_BREAKER = "evolution-api";
+
+    @Inject
+    @RestClient
+    EvolutionApiClient client;
+
+    @ConfigProperty(name = "evolution.api.key")
+    String apiKey;
+
+    @ConfigProperty(name = "evolution.api.instance")
+    String instance;
+
+    @Inject
+    MeterRegistry registry;
+
+    @RateLimit(value = 20, window = 1, windowUnit = ChronoUnit.SECONDS, type = RateLimitType.SMOOTH)
+    @Bulkhead(8)
+    @Timeout(value = 5, unit = ChronoUnit.SECONDS)
+    @CircuitBreaker(requestVolumeThreshold = 20, failureRatio = 0.5,
+            delay = 30, delayUnit = ChronoUnit.SECONDS, successThreshold = 2)
+    @CircuitBreakerName(CIRCUIT_BREAKER)
+    public void sendText(String phone, String message) {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "failure";
+        try {
+            client.sendText(instance, apiKey, new SendTextRequest(phone, message));
+            outcome = "success";
+        } finally {
+            sample.stop(registry.timer("turtle.evolution.requests", "outcome", outcome));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package turtle.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs outbound notification deliveries (WhatsApp, email) on a dedicated, bounded
+ * pool so gateway latency never reaches the threads that produce them.
+ *
+ * <p>Deliveries must not touch JPA entities: callers hand over plain values. When
+ * the queue is full the delivery is rejected and counted rather than blocking the
+ * caller; {@link OutboxRelay} leaves such messages pending for a later attempt.
+ */
+@ApplicationScoped
+public class NotificationDispatcher {
+
+    @ConfigProperty(name = "turtle.notifications.dispatch.threads", defaultValue = "4")
+    int threads;
+
+    @ConfigProperty(name = "turtle.notifications.dispatch.queue-capacity", defaultValue = "1000")
+    int queueCapacity;
+
+    @Inject
+    MeterRegistry registry;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger seq = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "notification-dispatch-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("turtle.notifications.queue.depth", executor, e -> e.getQueue().size())
+                .description("Notification deliveries waiting for a dispatch thread")
+                .register(registry);
+        Gauge.builder("turtle.notifications.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Notification deliveries in progress")
+                .register(registry);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            Log.warnf("Dropping %d queued notifications on shutdown", executor.shutdownNow().size());
+        }
+    }
+
+    /**
+     * Queues a delivery on the given channel ("whatsapp", "email"). Never blocks and
+     * never throws: the returned future fails with the delivery's exception, or with a
+     * {@link RejectedExecutionException} if the queue was full.
+     */
+    public CompletableFuture<Void> submit(String channel, Runnable delivery) {
+        Timer timer = registry.timer("turtle.notifications.delivery", "channel", channel);
+        try {
+            return CompletableFuture.runAsync(() -> timer.record(delivery), executor);
+        } catch (RejectedExecutionException e) {
+            Counter.builder("turtle.notifications.rejected")
+                    .description("Notification deliveries rejected because the dispatch queue was full")
+                    .tag("channel", channel)
+                    .register(registry)
+                    .increment();
+            Log.warnf("Notification queue full, deferring %s delivery", channel);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
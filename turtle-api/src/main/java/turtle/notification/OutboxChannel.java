@@ -0,0 +1,5 @@
+package turtle.notification;
+
+public enum OutboxChannel {
+    WHATSAPP, EMAIL
+}
@@ -0,0 +1,126 @@
+package turtle.notification;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/** A notification waiting to be delivered (or already delivered) by {@link OutboxRelay}. */
+@Entity
+@Table(name = "notification_outbox")
+public class OutboxMessage extends PanacheEntityBase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    public OutboxChannel channel;
+
+    /** Phone number for WhatsApp, address for email. */
+    @Column(nullable = false)
+    public String recipient;
+
+    public String subject;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    public String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    public OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    public int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    public LocalDateTime nextAttemptAt = LocalDateTime.now();
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    public String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    public LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "sent_at")
+    public LocalDateTime sentAt;
+
+    /** Chat digests only: rows with the same key are merged until their first attempt. */
+    @Column(name = "coalesce_key", length = 120)
+    public String coalesceKey;
+
+    @Column(name = "item_count", nullable = false)
+    public int itemCount = 1;
+
+    @Column(name = "booking_id")
+    public Long bookingId;
+
+    @Column(name = "recipient_id")
+    public Long recipientId;
+
+    @Column(name = "last_item_at", nullable = false)
+    public LocalDateTime lastItemAt = LocalDateTime.now();
+
+    /**
+     * Locks up to {@code limit} due rows, skipping rows another relay already holds.
+     * The caller must lease them (push {@code nextAttemptAt} out) before committing.
+     */
+    @SuppressWarnings("unchecked")
+    public static List<OutboxMessage> lockDue(LocalDateTime now, int limit) {
+        return getEntityManager().createNativeQuery(
+                "SELECT * FROM notification_outbox " +
+                "WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+                "ORDER BY next_attempt_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", OutboxMessage.class)
+                .setParameter("now", now)
+                .setParameter("limit", limit)
+                .getResultList();
+    }
+
+    /**
+     * Appends a chat line to the recipient's open digest for the booking, or opens one
+     * due at {@code dueAt}. One statement either way, safe under concurrent senders.
+     *
+     * @param separator    placed between the existing body and {@code body}
+     * @param digestSubject subject once the digest holds more than one line (email only)
+     */
+    public static void appendToDigest(OutboxChannel channel, String coalesceKey, Long bookingId, Long recipientId,
+                                      String recipient, String subject, String digestSubject,
+                                      String body, String separator, LocalDateTime dueAt) {
+        @SuppressWarnings("unchecked")
+        NativeQuery<Void> upsert = getEntityManager().createNativeQuery(
+                "INSERT INTO notification_outbox (channel, recipient, subject, body, next_attempt_at, " +
+                "coalesce_key, booking_id, recipient_id, last_item_at) " +
+                "VALUES (:channel, :recipient, :subject, :body, :dueAt, :key, :booking, :recipientId, :now) " +
+                "ON CONFLICT (coalesce_key) WHERE status = 'PENDING' AND attempts = 0 DO UPDATE SET " +
+                "body = notification_outbox.body || :separator || EXCLUDED.body, " +
+                "subject = :digestSubject, " +
+                "item_count = notification_outbox.item_count + 1, " +
+                "last_item_at = EXCLUDED.last_item_at").unwrap(NativeQuery.class);
+        // Only the outbox is touched; without this Hibernate would evict every cached region
+        upsert.addSynchronizedQuerySpace("notification_outbox")
+                .setParameter("channel", channel.name())
+                .setParameter("recipient", recipient)
+                .setParameter("subject", subject)
+                .setParameter("body", body)
+                .setParameter("dueAt", dueAt)
+                .setParameter("key", coalesceKey)
+                .setParameter("booking", bookingId)
+                .setParameter("recipientId", recipientId)
+                .setParameter("now", LocalDateTime.now())
+                .setParameter("separator", separator)
+                .setParameter("digestSubject", digestSubject)
+                .executeUpdate();
+    }
+
+    public static int markSent(Collection<Long> ids, LocalDateTime sentAt) {
+        return update("status = ?1, sentAt = ?2, lastError = null WHERE id IN ?3", OutboxStatus.SENT, sentAt, ids);
+    }
+
+    public static int markSkipped(Collection<Long> ids) {
+        return update("status = ?1 WHERE id IN ?2", OutboxStatus.SKIPPED, ids);
+    }
+}
@@ -0,0 +1,191 @@
+package turtle.notification;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import io.quarkus.mailer.Mail;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import turtle.chat.ChatPresence;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Delivers the notification outbox. Each round claims a batch of due rows with
+ * {@code FOR UPDATE SKIP LOCKED} and leases them by pushing their next attempt out,
+ * so several instances can relay side by side and a crashed relay's rows come back
+ * once the lease runs out. Deliveries then run with no transaction or lock held,
+ * WhatsApp on {@link NotificationDispatcher} and email on the reactive mailer;
+ * failures are retried with exponential backoff until {@code max-attempts}, after
+ * which the row is marked FAILED.
+ *
+ * <p>Delivery is at-least-once: a crash between sending and marking re-sends.
+ */
+@ApplicationScoped
+public class OutboxRelay {
+
+    @ConfigProperty(name = "turtle.outbox.batch-size", defaultValue = "50")
+    int batchSize;
+
+    @ConfigProperty(name = "turtle.outbox.max-attempts", defaultValue = "8")
+    int maxAttempts;
+
+    @ConfigProperty(name = "turtle.outbox.backoff-base", defaultValue = "10S")
+    Duration backoffBase;
+
+    @ConfigProperty(name = "turtle.outbox.backoff-max", defaultValue = "1H")
+    Duration backoffMax;
+
+    @ConfigProperty(name = "turtle.outbox.lease", defaultValue = "2M")
+    Duration lease;
+
+    @ConfigProperty(name = "turtle.outbox.retention", defaultValue = "7D")
+    Duration retention;
+
+    @Inject
+    NotificationService notifications;
+
+    @Inject
+    EmailNotificationService emailNotifications;
+
+    @Inject
+    NotificationDispatcher dispatcher;
+
+    @Inject
+    ChatPresence presence;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Scheduled(identity = "outbox-relay", every = "${turtle.outbox.poll-interval}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void poll() {
+        drain();
+    }
+
+    @Scheduled(identity = "outbox-purge", every = "1H", delayed = "1M",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void purge() {
+        long deleted = QuarkusTransaction.requiringNew().call(() -> OutboxMessage.delete(
+                "status = ?1 AND sentAt < ?2", OutboxStatus.SENT, LocalDateTime.now().minus(retention)));
+        if (deleted > 0) Log.debugf("Purged %d delivered outbox rows", deleted);
+    }
+
+    /** Delivers due messages batch by batch until none are left; returns how many were attempted. */
+    public int drain() {
+        int total = 0;
+        List<OutboxMessage> batch;
+        do {
+            batch = claim();
+            if (!batch.isEmpty()) {
+                Set<Long> skipped = new HashSet<>();
+                Map<Long, Throwable> failures = deliver(batch, skipped);
+                complete(batch, failures, skipped);
+            }
+            total += batch.size();
+        } while (batch.size() == batchSize);
+        return total;
+    }
+
+    private List<OutboxMessage> claim() {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxMessage> due = OutboxMessage.lockDue(now, batchSize);
+            for (OutboxMessage m : due) {
+                m.attempts++;
+                m.nextAttemptAt = now.plus(lease);
+            }
+            return due;
+        });
+    }
+
+    /**
+     * Sends the batch in parallel and returns the failures by message id. WhatsApp
+     * messages run on the dispatcher; the batch's emails are flushed together over the
+     * mailer's pooled SMTP connections. Chat digests whose recipient has read the chat
+     * since the last line are not sent but collected in {@code skipped}.
+     */
+    private Map<Long, Throwable> deliver(List<OutboxMessage> batch, Set<Long> skipped) {
+        Map<OutboxMessage, CompletableFuture<Void>> inFlight = new LinkedHashMap<>();
+        List<OutboxMessage> emails = new ArrayList<>();
+        for (OutboxMessage m : batch) {
+            if (m.bookingId != null && presence.hasSeenSince(m.bookingId, m.recipientId, m.lastItemAt)) {
+                skipped.add(m.id);
+            } else if (m.channel == OutboxChannel.EMAIL) {
+                emails.add(m);
+            } else {
+                inFlight.put(m, dispatcher.submit("whatsapp", () -> notifications.deliver(m.recipient, m.body)));
+            }
+        }
+        if (!emails.isEmpty()) {
+            List<CompletableFuture<Void>> sent = emailNotifications.deliverAll(emails.stream()
+                    .map(m -> Mail.withHtml(m.recipient, m.subject, m.body)).toList());
+            for (int i = 0; i < emails.size(); i++) inFlight.put(emails.get(i), sent.get(i));
+        }
+        Map<Long, Throwable> failures = new HashMap<>();
+        inFlight.forEach((m, delivery) -> {
+            try {
+                delivery.join();
+            } catch (CompletionException e) {
+                failures.put(m.id, e.getCause());
+            }
+        });
+        return failures;
+    }
+
+    private void complete(List<OutboxMessage> batch, Map<Long, Throwable> failures, Set<Long> skipped) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> sent = batch.stream().map(m -> m.id)
+                    .filter(id -> !failures.containsKey(id) && !skipped.contains(id)).toList();
+            if (!sent.isEmpty()) OutboxMessage.markSent(sent, now);
+            if (!skipped.isEmpty()) OutboxMessage.markSkipped(skipped);
+
+            for (OutboxMessage m : batch) {
+                if (skipped.contains(m.id)) {
+                    count(m, "skipped");
+                    continue;
+                }
+                Throwable error = failures.get(m.id);
+                if (error == null) {
+                    count(m, "sent");
+                    continue;
+                }
+                OutboxMessage row = OutboxMessage.findById(m.id);
+                row.lastError = String.valueOf(error.getMessage());
+                if (m.attempts >= maxAttempts) {
+                    row.status = OutboxStatus.FAILED;
+                    count(m, "failed");
+                    Log.warnf("Giving up on %s notification %d to %s after %d attempts: %s",
+                            m.channel, m.id, m.recipient, m.attempts, row.lastError);
+                } else {
+                    row.nextAttemptAt = now.plus(backoff(m.attempts));
+                    count(m, "retry");
+                }
+            }
+        });
+    }
+
+    /** Delay before the next attempt: base, 2x base, 4x base, ... capped at the maximum. */
+    Duration backoff(int attempts) {
+        Duration delay = backoffBase.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(backoffMax) > 0 ? backoffMax : delay;
+    }
+
+    private void count(OutboxMessage m, String outcome) {
+        registry.counter("turtle.outbox.deliveries",
+                "channel", m.channel.name().toLowerCase(), "outcome", outcome).increment();
+    }
+}
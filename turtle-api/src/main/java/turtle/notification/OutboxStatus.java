@@ -0,0 +1,5 @@
+package turtle.notification;
+
+public enum OutboxStatus {
+    PENDING, SENT, FAILED, SKIPPED
+}
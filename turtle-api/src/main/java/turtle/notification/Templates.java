@@ -0,0 +1,29 @@
+package turtle.notification;
+
+import io.quarkus.qute.CheckedTemplate;
+import io.quarkus.qute.TemplateInstance;
+
+/**
+ * Notification bodies, from {@code templates/notifications}. Templates are parsed and
+ * validated against these parameter types at build time; {@code .html} variants
+ * escape every expression, {@code .txt} variants are left as is.
+ */
+@CheckedTemplate(basePath = "notifications")
+public class Templates {
+
+    public static native TemplateInstance bookingCreatedWhatsApp(BookingNotification n);
+
+    public static native TemplateInstance bookingCreatedEmail(BookingNotification n);
+
+    public static native TemplateInstance bookingApprovedWhatsApp(BookingNotification n);
+
+    public static native TemplateInstance bookingApprovedEmail(BookingNotification n);
+
+    public static native TemplateInstance bookingRejectedWhatsApp(BookingNotification n);
+
+    public static native TemplateInstance bookingRejectedEmail(BookingNotification n);
+
+    public static native TemplateInstance chatLineWhatsApp(ChatNotification c);
+
+    public static native TemplateInstance chatLineEmail(ChatNotification c);
+}
@@ -2,10 +2,13 @@ package turtle.user;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
+import turtle.coach.CoachDirectoryListener;
 
 import java.util.Optional;
 
 @Entity
+@Cacheable
+@EntityListeners(CoachDirectoryListener.class)
 @Table(name = "app_user")
 public class AppUser extends PanacheEntityBase {
 
@@ -0,0 +1,41 @@
+package turtle.user;
+
+import io.quarkus.security.identity.SecurityIdentity;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+
+/**
+ * The authenticated caller of the current request. The id is read from the token
+ * subject once; the {@link AppUser} is only loaded if asked for, and then comes from
+ * the entity's second-level cache region when it is warm.
+ */
+@RequestScoped
+public class CurrentUser {
+
+    @Inject
+    SecurityIdentity identity;
+
+    private Long id;
+    private AppUser user;
+
+    public Long id() {
+        if (id == null) id = Long.parseLong(identity.getPrincipal().getName());
+        return id;
+    }
+
+    public boolean hasRole(String role) {
+        return identity.hasRole(role);
+    }
+
+    /** The caller's account, loaded on first use in this request. */
+    public AppUser user() {
+        if (user == null) user = AppUser.findById(id());
+        return user;
+    }
+
+    /** Rejects the request unless the caller is {@code userId}. */
+    public void assertIs(Long userId) {
+        if (!id().equals(userId)) throw new WebApplicationException("Forbidden", 403);
+    }
+}
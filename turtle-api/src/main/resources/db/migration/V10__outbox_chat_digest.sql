@@ -0,0 +1,14 @@
+-- V10: Coalesce chat notifications into per-recipient digests
+-- Chat rows carry a coalesce key (booking, recipient, channel). While such a row
+-- is still waiting for its first attempt, further messages are appended to it
+-- instead of inserting a new row; the partial unique index makes that an upsert.
+
+ALTER TABLE notification_outbox
+    ADD COLUMN coalesce_key VARCHAR(120),
+    ADD COLUMN item_count   INT       NOT NULL DEFAULT 1,
+    ADD COLUMN booking_id   BIGINT,
+    ADD COLUMN recipient_id BIGINT,
+    ADD COLUMN last_item_at TIMESTAMP NOT NULL DEFAULT now();
+
+CREATE UNIQUE INDEX uq_outbox_open_digest ON notification_outbox (coalesce_key)
+    WHERE status = 'PENDING' AND attempts = 0;
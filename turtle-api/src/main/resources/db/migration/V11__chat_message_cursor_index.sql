@@ -0,0 +1,2 @@
+-- V11: Incremental chat sync reads a booking's messages after a given id
+CREATE INDEX idx_chat_message_booking_id ON chat_message (booking_id, id);
@@ -0,0 +1,48 @@
+-- V12: Full-text search over the coach directory (name, specialty, bio)
+
+ALTER TABLE coach_profile ADD COLUMN search_vector TSVECTOR;
+
+-- The coach's name lives on app_user, so the vector is kept by triggers rather than
+-- a generated column: profile edits rebuild it, and a name change pushes it down.
+CREATE FUNCTION coach_profile_search_vector(p_name TEXT, p_specialty TEXT, p_bio TEXT)
+RETURNS TSVECTOR LANGUAGE sql IMMUTABLE AS $$
+    SELECT setweight(to_tsvector('simple', coalesce(p_name, '')), 'A')
+        || setweight(to_tsvector('simple', coalesce(p_specialty, '')), 'B')
+        || setweight(to_tsvector('simple', coalesce(p_bio, '')), 'C')
+$$;
+
+CREATE FUNCTION coach_profile_search_refresh() RETURNS TRIGGER LANGUAGE plpgsql AS $$
+BEGIN
+    NEW.search_vector := coach_profile_search_vector(
+        (SELECT name FROM app_user WHERE id = NEW.user_id), NEW.specialty, NEW.bio);
+    RETURN NEW;
+END
+$$;
+
+CREATE TRIGGER trg_coach_profile_search
+    BEFORE INSERT OR UPDATE OF user_id, specialty, bio ON coach_profile
+    FOR EACH ROW EXECUTE FUNCTION coach_profile_search_refresh();
+
+CREATE FUNCTION app_user_coach_search_refresh() RETURNS TRIGGER LANGUAGE plpgsql AS $$
+BEGIN
+    UPDATE coach_profile
+       SET search_vector = coach_profile_search_vector(NEW.name, specialty, bio)
+     WHERE user_id = NEW.id;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER trg_app_user_coach_search
+    AFTER UPDATE OF name ON app_user
+    FOR EACH ROW WHEN (OLD.name IS DISTINCT FROM NEW.name)
+    EXECUTE FUNCTION app_user_coach_search_refresh();
+
+UPDATE coach_profile p
+   SET search_vector = coach_profile_search_vector(u.name, p.specialty, p.bio)
+  FROM app_user u
+ WHERE u.id = p.user_id;
+
+CREATE INDEX idx_coach_profile_search ON coach_profile USING GIN (search_vector);
+
+-- Unfiltered directory pages walk approved coaches in user id order
+CREATE INDEX idx_coach_profile_approved ON coach_profile (user_id) WHERE status = 'APPROVED';
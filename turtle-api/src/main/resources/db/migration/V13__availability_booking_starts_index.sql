@@ -0,0 +1,4 @@
+-- V13: Date-range filters on GET /bookings probe a booking's slots by start time
+
+DROP INDEX idx_availability_booking;
+CREATE INDEX idx_availability_booking_starts ON availability (booking_id, starts_at);
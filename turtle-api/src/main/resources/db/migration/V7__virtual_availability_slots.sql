@@ -0,0 +1,21 @@
+-- V7: Virtual availability slots
+-- Slots are computed on demand from their time window; a row is only stored
+-- once a booking claims the slot. Stored and virtual slots share one id that
+-- encodes the window and the slot position: (time_window_id << 24) | slot_index.
+
+-- Free slots are now virtual
+DELETE FROM availability WHERE booking_id IS NULL;
+
+-- Re-key claimed slots so they match the id of their virtual counterpart
+UPDATE availability a
+SET id = (tw.id << 24)
+       | ((a.starts_at::date - tw.start_date)
+              * (EXTRACT(EPOCH FROM (tw.daily_end_time - tw.daily_start_time))::bigint / 60 / tw.unit_of_work_minutes)
+          + EXTRACT(EPOCH FROM (a.starts_at::time - tw.daily_start_time))::bigint / 60 / tw.unit_of_work_minutes)
+FROM time_window tw
+WHERE a.time_window_id = tw.id;
+
+-- Ids are assigned by the application from now on
+ALTER TABLE availability ALTER COLUMN id DROP DEFAULT;
+
+CREATE INDEX idx_availability_coach_starts ON availability (coach_id, starts_at);
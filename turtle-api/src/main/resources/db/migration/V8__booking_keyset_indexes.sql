@@ -0,0 +1,7 @@
+-- V8: Indexes backing keyset pagination of GET /bookings
+
+CREATE INDEX idx_booking_coach_id  ON booking (coach_id, id DESC);
+CREATE INDEX idx_booking_client_id ON booking (client_id, id DESC);
+
+-- Resolve a booking's slots without scanning by time window
+CREATE INDEX idx_availability_booking ON availability (booking_id);
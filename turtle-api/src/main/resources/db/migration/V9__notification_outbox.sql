@@ -0,0 +1,20 @@
+-- V9: Transactional outbox for WhatsApp and email notifications
+-- Rows are written in the same transaction as the booking/chat change and
+-- delivered by OutboxRelay, which claims due rows with FOR UPDATE SKIP LOCKED.
+
+CREATE TABLE notification_outbox (
+    id              BIGSERIAL    PRIMARY KEY,
+    channel         VARCHAR(20)  NOT NULL,
+    recipient       VARCHAR(255) NOT NULL,
+    subject         VARCHAR(255),
+    body            TEXT         NOT NULL,
+    status          VARCHAR(20)  NOT NULL DEFAULT 'PENDING',
+    attempts        INT          NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP    NOT NULL DEFAULT now(),
+    last_error      TEXT,
+    created_at      TIMESTAMP    NOT NULL DEFAULT now(),
+    sent_at         TIMESTAMP
+);
+
+-- Only pending rows are ever polled
+CREATE INDEX idx_outbox_due ON notification_outbox (next_attempt_at, id) WHERE status = 'PENDING';
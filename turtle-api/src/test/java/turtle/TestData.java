@@ -0,0 +1,85 @@
+package turtle;
+
+import turtle.booking.Booking;
+import turtle.booking.BookingStatus;
+import turtle.coach.CoachProfile;
+import turtle.coach.CoachStatus;
+import turtle.coach.CoachingService;
+import turtle.coach.TimeWindow;
+import turtle.user.AppUser;
+import turtle.user.UserRole;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Builders for the rows most tests start from. Each persists what it builds, so
+ * call them inside a transaction, e.g. {@code QuarkusTransaction.requiringNew().call(...)}.
+ */
+public final class TestData {
+
+    private TestData() {}
+
+    /** A user with a unique email derived from {@code name} and the password hash "x". */
+    public static AppUser user(String name, UserRole role) {
+        return user(name, role, "x");
+    }
+
+    public static AppUser user(String name, UserRole role, String passwordHash) {
+        AppUser u = new AppUser();
+        u.name = name;
+        u.email = name.replace(' ', '-').toLowerCase() + "-" + System.nanoTime() + "@test.com";
+        u.passwordHash = passwordHash;
+        u.role = role;
+        u.persist();
+        return u;
+    }
+
+    public static CoachProfile coachProfile(AppUser coach, CoachStatus status) {
+        CoachProfile p = new CoachProfile();
+        p.user = coach;
+        p.status = status;
+        p.persist();
+        return p;
+    }
+
+    public static CoachingService service(AppUser coach, String name) {
+        CoachingService s = new CoachingService();
+        s.coach = coach;
+        s.name = name;
+        s.persist();
+        return s;
+    }
+
+    /** A window on a single day from {@code fromHour} to {@code toHour}, split into {@code unitMinutes} slots. */
+    public static TimeWindow window(AppUser coach, LocalDate day, int fromHour, int toHour, int unitMinutes) {
+        TimeWindow tw = new TimeWindow();
+        tw.coach = coach;
+        tw.startDate = day;
+        tw.endDate = day;
+        tw.dailyStartTime = LocalTime.of(fromHour, 0);
+        tw.dailyEndTime = LocalTime.of(toHour, 0);
+        tw.unitOfWorkMinutes = unitMinutes;
+        tw.persist();
+        return tw;
+    }
+
+    /** A single one-hour slot, 09:00 to 10:00 on {@code day}. */
+    public static TimeWindow oneHourWindow(AppUser coach, LocalDate day) {
+        return window(coach, day, 9, 10, 60);
+    }
+
+    /** A booking without slots, as the chat tests need. */
+    public static Booking booking(AppUser client, AppUser coach, BookingStatus status) {
+        Booking b = new Booking();
+        b.client = client;
+        b.coach = coach;
+        b.status = status;
+        b.persist();
+        return b;
+    }
+
+    public static Booking approvedBooking(AppUser client, AppUser coach) {
+        return booking(client, coach, BookingStatus.APPROVED);
+    }
+}
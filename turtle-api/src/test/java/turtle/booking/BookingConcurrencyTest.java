@@ -0,0 +1,95 @@
+package turtle.booking;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+import turtle.coach.Availability;
+import turtle.user.AppUser;
+import turtle.user.UserRole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static turtle.TestData.user;
+import static turtle.TestData.window;
+
+@QuarkusTest
+class BookingConcurrencyTest {
+
+    private static final int CLIENTS = 16;
+    private static final int PAIRS = 4;
+    private static final int REQUESTS_PER_PAIR = 60;
+
+    @Test
+    void parallelBookingsOfTheSameSlotsHaveExactlyOneWinner() throws Exception {
+        Long windowId = createWindow();
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            tokens.add(registerClient(i));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(48);
+        List<List<Future<Integer>>> results = new ArrayList<>();
+        try {
+            for (int p = 0; p < PAIRS; p++) {
+                String body = "{\"availabilityIds\":[" + Availability.slotId(windowId, 2 * p) + ","
+                        + Availability.slotId(windowId, 2 * p + 1) + "]}";
+                List<Future<Integer>> pair = new ArrayList<>();
+                for (int r = 0; r < REQUESTS_PER_PAIR; r++) {
+                    String token = tokens.get(r % CLIENTS);
+                    pair.add(pool.submit(() -> given()
+                            .auth().oauth2(token)
+                            .contentType(ContentType.JSON)
+                            .body(body)
+                            .when().post("/bookings")
+                            .then().extract().statusCode()));
+                }
+                results.add(pair);
+            }
+
+            for (List<Future<Integer>> pair : results) {
+                int created = 0;
+                int conflicts = 0;
+                for (Future<Integer> f : pair) {
+                    int status = f.get();
+                    if (status == 201) created++;
+                    if (status == 409) conflicts++;
+                }
+                assertEquals(1, created);
+                assertEquals(REQUESTS_PER_PAIR - 1, conflicts);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long stored = QuarkusTransaction.requiringNew().call(() ->
+                Availability.count("timeWindow.id = ?1 AND booking IS NOT NULL", windowId));
+        assertEquals(2L * PAIRS, stored);
+    }
+
+    private Long createWindow() {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            AppUser coach = user("Busy Coach", UserRole.COACH);
+            return window(coach, LocalDate.now().plusDays(30), 9, 17, 30).id;
+        });
+    }
+
+    private String registerClient(int i) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {"name":"Racer %d","email":"racer-%d-%d@test.com","phone":"55119000%04d",
+                         "password":"secret","role":"CLIENT"}
+                        """.formatted(i, i, System.nanoTime(), i))
+                .when().post("/auth/register")
+                .then().statusCode(201)
+                .extract().path("token");
+    }
+}
@@ -0,0 +1,75 @@
+package turtle.booking;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import turtle.coach.Availability;
+import turtle.coach.CoachingService;
+import turtle.coach.ServiceCatalog;
+import turtle.coach.TimeWindow;
+import turtle.user.AppUser;
+import turtle.user.UserRole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static turtle.TestData.service;
+import static turtle.TestData.user;
+import static turtle.TestData.window;
+
+@QuarkusTest
+class BookingQueryCountTest {
+
+    @Inject
+    BookingService bookingService;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    ServiceCatalog serviceCatalog;
+
+    @Test
+    void sixSlotBookingWithThreeExtrasStaysWithinStatementBudget() {
+        Fixture f = QuarkusTransaction.requiringNew().call(BookingQueryCountTest::fixture);
+        List<Long> slotIds = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            slotIds.add(Availability.slotId(f.windowId(), i));
+        }
+
+        serviceCatalog.forCoach(f.coachId());
+        QuarkusTransaction.requiringNew().run(() -> AppUser.findById(f.clientId()));
+        Statistics stats = sessionFactory.getStatistics();
+        stats.clear();
+        bookingService.create(f.clientId(), slotIds, "query budget", f.extraIds());
+
+        // select windows, the day's stored slots and windows (extras are validated by the warm
+        // catalog; they and the client come from the second-level cache); insert booking, slots,
+        // 3 booking_extras, the coach's email into the outbox
+        assertEquals(9, stats.getPrepareStatementCount());
+    }
+
+    private record Fixture(Long coachId, Long clientId, Long windowId, List<Long> extraIds) {}
+
+    private static Fixture fixture() {
+        AppUser coach = user("Counted Coach", UserRole.COACH);
+        AppUser client = user("Counted Client", UserRole.CLIENT);
+
+        List<CoachingService> extras = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            extras.add(service(coach, "Extra " + i));
+        }
+        CoachingService main = service(coach, "Main");
+        main.extras.addAll(extras);
+
+        TimeWindow tw = window(coach, LocalDate.now().plusDays(10), 9, 12, 30);
+        tw.service = main;
+
+        return new Fixture(coach.id, client.id, tw.id, extras.stream().map(e -> e.id).toList());
+    }
+}
@@ -1,16 +1,33 @@
 package turtle.booking;
 
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.security.TestSecurity;
 import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import io.smallrye.jwt.build.Jwt;
+import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
+import turtle.coach.Availability;
+import turtle.user.AppUser;
+import turtle.user.UserRole;
+
+import java.time.LocalDate;
+import java.util.List;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static turtle.TestData.oneHourWindow;
+import static turtle.TestData.user;
 
 @QuarkusTest
 class BookingResourceTest {
 
+    @Inject
+    BookingService bookingService;
+
     @Test
     void listBookingsRequiresAuth() {
         given()
@@ -61,4 +78,104 @@ class BookingResourceTest {
                 .statusCode(200)
                 .body("$", instanceOf(java.util.List.class));
     }
+
+    @Test
+    @TestSecurity(user = "1", roles = "CLIENT")
+    void listBookingsRejectsOutOfRangeLimit() {
+        given()
+                .queryParam("limit", 0)
+                .when().get("/bookings")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @TestSecurity(user = "1", roles = "CLIENT")
+    void listBookingsRejectsInvertedDateRange() {
+        given()
+                .queryParam("from", "2030-06-10")
+                .queryParam("to", "2030-06-01")
+                .when().get("/bookings")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    void listBookingsPagesWithTheNextCursor() {
+        Fixture f = fixture();
+
+        Response first = asClient(f).queryParam("limit", 2).when().get("/bookings");
+        assertEquals(200, first.statusCode());
+        assertEquals(List.of(f.bookingIds().get(2).intValue(), f.bookingIds().get(1).intValue()),
+                first.jsonPath().getList("id"));
+        String cursor = first.header(BookingResource.NEXT_CURSOR_HEADER);
+        assertEquals(String.valueOf(f.bookingIds().get(1)), cursor);
+
+        asClient(f).queryParam("limit", 2).queryParam("after", cursor)
+                .when().get("/bookings")
+                .then().statusCode(200)
+                .header(BookingResource.NEXT_CURSOR_HEADER, nullValue())
+                .body("id", contains(f.bookingIds().get(0).intValue()))
+                .body("[0].startsAt", equalTo(f.day() + "T09:00:00"))
+                .body("[0].endsAt", equalTo(f.day() + "T10:00:00"))
+                .body("[0]", not(hasKey("slots")));
+    }
+
+    @Test
+    void listBookingsFiltersByStatus() {
+        Fixture f = fixture();
+        bookingService.approve(f.bookingIds().get(1), f.coachId());
+
+        asClient(f).queryParam("status", "APPROVED")
+                .when().get("/bookings")
+                .then().statusCode(200)
+                .body("id", contains(f.bookingIds().get(1).intValue()))
+                .body("[0].status", equalTo("APPROVED"));
+        asClient(f).queryParam("status", "PENDING")
+                .when().get("/bookings")
+                .then().statusCode(200)
+                .body("id", contains(f.bookingIds().get(2).intValue(), f.bookingIds().get(0).intValue()));
+    }
+
+    @Test
+    void listBookingsFiltersBySessionDate() {
+        Fixture f = fixture();
+        LocalDate second = f.day().plusDays(1);
+
+        asClient(f).queryParam("from", second.toString()).queryParam("to", second.toString())
+                .when().get("/bookings")
+                .then().statusCode(200)
+                .body("id", contains(f.bookingIds().get(1).intValue()));
+        asClient(f).queryParam("from", second.toString())
+                .when().get("/bookings")
+                .then().statusCode(200)
+                .body("id", contains(f.bookingIds().get(2).intValue(), f.bookingIds().get(1).intValue()));
+        asClient(f).queryParam("to", f.day().toString())
+                .when().get("/bookings")
+                .then().statusCode(200)
+                .body("id", contains(f.bookingIds().get(0).intValue()));
+    }
+
+    /** A client with one booking on each of three consecutive days starting at {@code day}, oldest first. */
+    private record Fixture(Long clientId, Long coachId, LocalDate day, List<Long> bookingIds) {}
+
+    private Fixture fixture() {
+        LocalDate day = LocalDate.now().plusDays(80);
+        Long[] ids = QuarkusTransaction.requiringNew().call(() -> {
+            AppUser coach = user("Listed Coach", UserRole.COACH);
+            AppUser client = user("Listed Client", UserRole.CLIENT);
+            return new Long[]{client.id, coach.id,
+                    oneHourWindow(coach, day).id,
+                    oneHourWindow(coach, day.plusDays(1)).id,
+                    oneHourWindow(coach, day.plusDays(2)).id};
+        });
+        List<Long> bookingIds = List.of(2, 3, 4).stream()
+                .map(i -> bookingService.create(ids[0], List.of(Availability.slotId(ids[i], 0)), null, null).id)
+                .toList();
+        return new Fixture(ids[0], ids[1], day, bookingIds);
+    }
+
+    private static RequestSpecification asClient(Fixture f) {
+        return given().auth().oauth2(Jwt.issuer("turtle-api").subject(String.valueOf(f.clientId())).groups("CLIENT").sign());
+    }
 }
@@ -0,0 +1,50 @@
+package turtle.booking;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import turtle.coach.Availability;
+import turtle.coach.TimeWindow;
+import turtle.user.AppUser;
+import turtle.user.UserRole;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static turtle.TestData.user;
+import static turtle.TestData.window;
+
+@QuarkusTest
+class InterleavedBookingTest {
+
+    @Inject
+    BookingService bookingService;
+
+    @Test
+    void bookingAcrossInterleavedWindowsClaimsOnlyTheRequestedSlots() {
+        LocalDate day = LocalDate.now().plusDays(30);
+        Long[] ids = QuarkusTransaction.requiringNew().call(() -> {
+            AppUser coach = user("Interleaved Coach", UserRole.COACH);
+            AppUser client = user("Interleaved Client", UserRole.CLIENT);
+            TimeWindow low = window(coach, day, 9, 12, 60);
+            TimeWindow high = window(coach, day, 10, 11, 30);
+            high.priority = 5;
+            return new Long[]{client.id, low.id, high.id};
+        });
+        Long low = ids[1], high = ids[2];
+
+        // 09:00 (low), 10:00 and 10:30 (high), 11:00 (low); low's 10:00 is shadowed
+        List<Long> slotIds = List.of(Availability.slotId(low, 0), Availability.slotId(high, 0),
+                Availability.slotId(high, 1), Availability.slotId(low, 2));
+        Booking booking = bookingService.create(ids[0], slotIds, null, null);
+
+        List<Long> stored = QuarkusTransaction.requiringNew().call(() ->
+                Availability.<Availability>list("booking.id = ?1 ORDER BY startsAt", booking.id)
+                        .stream().map(a -> a.id).toList());
+        assertEquals(slotIds, stored);
+        assertEquals(0, QuarkusTransaction.requiringNew().call(() ->
+                Availability.count("id", Availability.slotId(low, 1))));
+    }
+}
@@ -0,0 +1,73 @@
+package turtle.chat;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import org.junit.jupiter.api.Test;
+import turtle.booking.Booking;
+import turtle.booking.BookingService;
+import turtle.booking.BookingStatus;
+import turtle.user.AppUser;
+import turtle.user.UserRole;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static turtle.TestData.booking;
+import static turtle.TestData.user;
+
+@QuarkusTest
+class ChatAccessTest {
+
+    @Inject
+    ChatService chatService;
+
+    @Inject
+    BookingService bookingService;
+
+    @Test
+    void approvalEvictsCachedParticipants() {
+        Long[] ids = QuarkusTransaction.requiringNew().call(() -> {
+            AppUser coach = user("Access Coach", UserRole.COACH);
+            AppUser client = user("Access Client", UserRole.CLIENT);
+            Booking b = booking(client, coach, BookingStatus.PENDING);
+            return new Long[]{b.id, client.id, coach.id};
+        });
+        Long bookingId = ids[0], clientId = ids[1], coachId = ids[2];
+
+        WebApplicationException pending = assertThrows(WebApplicationException.class,
+                () -> chatService.listMessages(bookingId, clientId, null, 10));
+        assertEquals(403, pending.getResponse().getStatus());
+
+        bookingService.approve(bookingId, coachId);
+
+        assertTrue(chatService.listMessages(bookingId, clientId, null, 10).items().isEmpty());
+        assertEquals("hi", chatService.sendMessage(bookingId, clientId, "hi").content);
+    }
+
+    @Test
+    void sendingChecksTheCurrentStatusRatherThanTheCachedOne() {
+        Long[] ids = QuarkusTransaction.requiringNew().call(() -> {
+            AppUser coach = user("Stale Coach", UserRole.COACH);
+            AppUser client = user("Stale Client", UserRole.CLIENT);
+            Booking b = booking(client, coach, BookingStatus.APPROVED);
+            return new Long[]{b.id, client.id};
+        });
+        Long bookingId = ids[0], clientId = ids[1];
+        chatService.listMessages(bookingId, clientId, null, 10);
+
+        // Changed behind the cache's back, as another instance would
+        QuarkusTransaction.requiringNew().run(() ->
+                Booking.<Booking>findById(bookingId).status = BookingStatus.CANCELLED);
+
+        WebApplicationException e = assertThrows(WebApplicationException.class,
+                () -> chatService.sendMessage(bookingId, clientId, "still there?"));
+        assertEquals(403, e.getResponse().getStatus());
+    }
+
+    @Test
+    void unknownBookingIsNotFound() {
+        WebApplicationException e = assertThrows(WebApplicationException.class,
+                () -> chatService.listMessages(Long.MAX_VALUE, 1L, null, 10));
+        assertEquals(404, e.getResponse().getStatus());
+    }
+}
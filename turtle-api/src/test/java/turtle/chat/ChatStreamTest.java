@@ -0,0 +1,127 @@
+package turtle.chat;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import io.smallrye.jwt.build.Jwt;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import org.junit.jupiter.api.Test;
+import turtle.booking.Booking;
+import turtle.chat.dto.MessageResponse;
+import turtle.user.AppUser;
+import turtle.user.UserRole;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+import static turtle.TestData.approvedBooking;
+import static turtle.TestData.user;
+
+@QuarkusTest
+class ChatStreamTest {
+
+    @Inject
+    ChatService chatService;
+
+    @TestHTTPResource("/")
+    URI root;
+
+    @Test
+    void participantReceivesMessagesSentAfterConnecting() {
+        Long[] ids = fixture();
+        Long bookingId = ids[0], clientId = ids[1], coachId = ids[2];
+        chatService.sendMessage(bookingId, coachId, "before");
+
+        AssertSubscriber<MessageResponse> client = chatService.streamMessages(bookingId, clientId)
+                .subscribe().withSubscriber(AssertSubscriber.create(10));
+        chatService.sendMessage(bookingId, coachId, "hello");
+
+        client.awaitItems(1, Duration.ofSeconds(5));
+        MessageResponse pushed = client.getItems().get(0);
+        assertEquals("hello", pushed.content());
+        assertEquals(coachId, pushed.senderId());
+
+        client.cancel();
+        chatService.sendMessage(bookingId, coachId, "after");
+        assertEquals(1, client.getItems().size());
+    }
+
+    @Test
+    void outsiderCannotStream() {
+        Long[] ids = fixture();
+        Long outsider = QuarkusTransaction.requiringNew().call(() -> user("Stream Outsider", UserRole.CLIENT).id);
+
+        WebApplicationException e = assertThrows(WebApplicationException.class,
+                () -> chatService.streamMessages(ids[0], outsider));
+        assertEquals(403, e.getResponse().getStatus());
+    }
+
+    @Test
+    void streamRequiresAuthentication() {
+        given().when().get("/bookings/1/messages/stream").then().statusCode(401);
+    }
+
+    @Test
+    @TestSecurity(user = "999999", roles = "CLIENT")
+    void streamForUnknownBookingIsNotFound() {
+        given().when().get("/bookings/999999/messages/stream").then().statusCode(404);
+    }
+
+    @Test
+    void eventSourceClientsCanPassTheTokenAsAQueryParameter() {
+        Long[] ids = fixture();
+        Long outsider = QuarkusTransaction.requiringNew().call(() -> user("Query Outsider", UserRole.CLIENT).id);
+
+        given().queryParam("access_token", "not-a-jwt")
+                .when().get("/bookings/" + ids[0] + "/messages/stream")
+                .then().statusCode(401);
+        given().queryParam("access_token", token(outsider))
+                .when().get("/bookings/" + ids[0] + "/messages/stream")
+                .then().statusCode(403);
+        given().queryParam("access_token", token(ids[1]))
+                .when().get("/bookings/999999/messages/stream")
+                .then().statusCode(404);
+    }
+
+    @Test
+    void idleStreamsReceiveHeartbeats() throws Exception {
+        Long[] ids = fixture();
+        URI uri = root.resolve("bookings/" + ids[0] + "/messages/stream?access_token=" + token(ids[1]));
+        HttpClient http = HttpClient.newHttpClient();
+
+        HttpResponse<Stream<String>> response = http.sendAsync(HttpRequest.newBuilder(uri).build(),
+                HttpResponse.BodyHandlers.ofLines()).get(10, TimeUnit.SECONDS);
+        try (Stream<String> lines = response.body()) {
+            assertEquals(200, response.statusCode());
+            // The test profile sends one every second
+            String first = CompletableFuture.supplyAsync(() -> lines.filter(l -> !l.isEmpty()).findFirst().orElseThrow())
+                    .get(10, TimeUnit.SECONDS);
+            assertTrue(first.startsWith(":"), first);
+        }
+    }
+
+    private static String token(Long userId) {
+        return Jwt.issuer("turtle-api").subject(String.valueOf(userId)).groups("CLIENT").sign();
+    }
+
+    /** An approved booking; returns booking, client and coach ids. */
+    private static Long[] fixture() {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            AppUser coach = user("Stream Coach", UserRole.COACH);
+            AppUser client = user("Stream Client", UserRole.CLIENT);
+            Booking b = approvedBooking(client, coach);
+            return new Long[]{b.id, client.id, coach.id};
+        });
+    }
+}
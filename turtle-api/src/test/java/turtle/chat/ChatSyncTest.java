@@ -0,0 +1,58 @@
+package turtle.chat;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import turtle.booking.Booking;
+import turtle.chat.dto.MessagePage;
+import turtle.chat.dto.MessageResponse;
+import turtle.user.AppUser;
+import turtle.user.UserRole;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static turtle.TestData.approvedBooking;
+import static turtle.TestData.user;
+
+@QuarkusTest
+class ChatSyncTest {
+
+    @Inject
+    ChatService chatService;
+
+    @Test
+    void pagesThroughHistoryAndThenReturnsOnlyNewMessages() {
+        Long[] ids = fixture();
+        Long bookingId = ids[0], clientId = ids[1], coachId = ids[2];
+        for (int i = 0; i < 5; i++) chatService.sendMessage(bookingId, coachId, "m" + i);
+
+        MessagePage first = chatService.listMessages(bookingId, clientId, null, 3);
+        assertEquals(3, first.items().size());
+        assertEquals("m0", first.items().get(0).content());
+        assertNotNull(first.nextCursor());
+
+        MessagePage rest = chatService.listMessages(bookingId, clientId, first.nextCursor(), 3);
+        assertEquals(2, rest.items().size());
+        assertNull(rest.nextCursor());
+        Long lastSeen = rest.items().get(1).id();
+
+        assertTrue(chatService.listMessages(bookingId, clientId, lastSeen, 3).items().isEmpty());
+
+        chatService.sendMessage(bookingId, coachId, "new");
+        MessagePage poll = chatService.listMessages(bookingId, clientId, lastSeen, 3);
+        MessageResponse latest = poll.items().get(0);
+        assertEquals(1, poll.items().size());
+        assertEquals("new", latest.content());
+        assertEquals(coachId, latest.senderId());
+    }
+
+    /** An approved booking; returns booking, client and coach ids. */
+    private static Long[] fixture() {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            AppUser coach = user("Sync Coach", UserRole.COACH);
+            AppUser client = user("Sync Client", UserRole.CLIENT);
+            Booking b = approvedBooking(client, coach);
+            return new Long[]{b.id, client.id, coach.id};
+        });
+    }
+}
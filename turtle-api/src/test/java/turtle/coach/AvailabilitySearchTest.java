@@ -0,0 +1,115 @@
+package turtle.coach;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import turtle.booking.Booking;
+import turtle.booking.BookingService;
+import turtle.user.AppUser;
+import turtle.user.UserRole;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static turtle.TestData.coachProfile;
+import static turtle.TestData.service;
+import static turtle.TestData.user;
+import static turtle.TestData.window;
+
+@QuarkusTest
+class AvailabilitySearchTest {
+
+    @Inject
+    BookingService bookingService;
+
+    @Test
+    void findsCoachesWithEnoughFreeTimeAndFollowsBookings() {
+        LocalDate day = LocalDate.now().plusDays(50);
+        String serviceName = "Breathwork " + System.nanoTime();
+        Long[] ids = QuarkusTransaction.requiringNew().call(() -> {
+            AppUser coach = user("Indexed Coach", UserRole.COACH);
+            AppUser client = user("Indexed Client", UserRole.CLIENT);
+            coachProfile(coach, CoachStatus.APPROVED).specialty = "Breathing";
+            TimeWindow tw = window(coach, day, 5, 7, 60);
+            tw.service = service(coach, serviceName);
+            return new Long[]{coach.id, client.id, tw.id};
+        });
+        int coachId = ids[0].intValue();
+
+        given().queryParam("from", day.atTime(5, 0).toString())
+                .queryParam("to", day.atTime(7, 0).toString())
+                .queryParam("minutes", 120)
+                .queryParam("service", serviceName.toUpperCase())
+                .queryParam("specialty", "breath")
+                .when().get("/coaches/available")
+                .then().statusCode(200)
+                .body("id", hasItem(coachId))
+                .body("find { it.id == " + coachId + " }.runs[0].availabilityIds", hasSize(2));
+
+        Booking booking = bookingService.create(ids[1], List.of(Availability.slotId(ids[2], 0)), null, null);
+        given().queryParam("from", day.atTime(5, 0).toString())
+                .queryParam("to", day.atTime(7, 0).toString())
+                .queryParam("minutes", 120)
+                .when().get("/coaches/available")
+                .then().statusCode(200)
+                .body("id", not(hasItem(coachId)));
+
+        bookingService.cancel(booking.id, ids[1]);
+        given().queryParam("from", day.atTime(5, 0).toString())
+                .queryParam("to", day.atTime(7, 0).toString())
+                .queryParam("minutes", 120)
+                .when().get("/coaches/available")
+                .then().statusCode(200)
+                .body("id", hasItem(coachId));
+    }
+
+    @Test
+    void returnsApprovedCoachesInStartOrderUpToTheLimit() {
+        LocalDate day = LocalDate.now().plusDays(53);
+        String specialty = "Ordering " + System.nanoTime();
+        int[] ids = QuarkusTransaction.requiringNew().call(() -> {
+            AppUser late = user("Late Coach", UserRole.COACH);
+            coachProfile(late, CoachStatus.APPROVED).specialty = specialty;
+            window(late, day, 7, 8, 60);
+            AppUser early = user("Early Coach", UserRole.COACH);
+            coachProfile(early, CoachStatus.APPROVED).specialty = specialty;
+            window(early, day, 6, 7, 60);
+            AppUser pending = user("Pending Coach", UserRole.COACH);
+            coachProfile(pending, CoachStatus.PENDING).specialty = specialty;
+            window(pending, day, 5, 6, 60);
+            return new int[]{late.id.intValue(), early.id.intValue()};
+        });
+
+        given().queryParam("from", day.atTime(5, 0).toString())
+                .queryParam("to", day.atTime(9, 0).toString())
+                .queryParam("minutes", 60)
+                .queryParam("specialty", specialty)
+                .when().get("/coaches/available")
+                .then().statusCode(200)
+                .body("id", contains(ids[1], ids[0]));
+
+        given().queryParam("from", day.atTime(5, 0).toString())
+                .queryParam("to", day.atTime(9, 0).toString())
+                .queryParam("minutes", 60)
+                .queryParam("specialty", specialty)
+                .queryParam("limit", 1)
+                .when().get("/coaches/available")
+                .then().statusCode(200)
+                .body("id", contains(ids[1]));
+    }
+
+    @Test
+    void rejectsInvertedOrOverlongRanges() {
+        given().queryParam("from", "2030-06-02T10:00").queryParam("to", "2030-06-01T10:00")
+                .queryParam("minutes", 30)
+                .when().get("/coaches/available")
+                .then().statusCode(400);
+        given().queryParam("from", "2030-06-01T10:00").queryParam("to", "2030-07-01T10:00")
+                .queryParam("minutes", 30)
+                .when().get("/coaches/available")
+                .then().statusCode(400);
+    }
+}
@@ -0,0 +1,90 @@
+package turtle.coach;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.Test;
+import turtle.user.AppUser;
+import turtle.user.UserRole;
+
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static turtle.TestData.coachProfile;
+import static turtle.TestData.user;
+
+@QuarkusTest
+class CoachDirectoryTest {
+
+    @Test
+    void searchesApprovedCoachesByNameSpecialtyAndBio() {
+        String token = "kitesurf" + System.nanoTime();
+        Long[] ids = QuarkusTransaction.requiringNew().call(() -> new Long[]{
+                coach("Directory Specialist", token, null, CoachStatus.APPROVED),
+                coach("Directory Storyteller", "Wellness", "Ten years of " + token + " lessons", CoachStatus.APPROVED),
+                coach("Directory Pending", token, null, CoachStatus.PENDING),
+                coach("Directory Rejected", token, null, CoachStatus.REJECTED)});
+
+        given().queryParam("q", token)
+                .when().get("/coaches")
+                .then().statusCode(200)
+                .header("X-Next-Cursor", nullValue())
+                .body("id", contains(ids[0].intValue(), ids[1].intValue()))
+                .body("[0].specialty", equalTo(token));
+
+        given().queryParam("q", token + " -lessons")
+                .when().get("/coaches")
+                .then().statusCode(200)
+                .body("id", contains(ids[0].intValue()));
+    }
+
+    @Test
+    void pagesWithTheNextCursor() {
+        String token = "abseil" + System.nanoTime();
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (int i = 0; i < 3; i++) coach("Directory Page " + i, token, null, CoachStatus.APPROVED);
+        });
+
+        Response first = given().queryParam("q", token).queryParam("limit", 2).when().get("/coaches");
+        assertEquals(200, first.statusCode());
+        List<Integer> firstIds = first.jsonPath().getList("id");
+        assertEquals(2, firstIds.size());
+        String cursor = first.header("X-Next-Cursor");
+        assertEquals(String.valueOf(firstIds.get(1)), cursor);
+
+        given().queryParam("q", token).queryParam("limit", 2).queryParam("after", cursor)
+                .when().get("/coaches")
+                .then().statusCode(200)
+                .header("X-Next-Cursor", nullValue())
+                .body("$", hasSize(1))
+                .body("[0].id", greaterThan(firstIds.get(1)));
+    }
+
+    @Test
+    void renamedCoachIsFoundByTheNewName() {
+        String newName = "Renamed" + System.nanoTime();
+        Long userId = QuarkusTransaction.requiringNew().call(() ->
+                coach("Directory Before", "Rowing", null, CoachStatus.APPROVED));
+        QuarkusTransaction.requiringNew().run(() -> AppUser.<AppUser>findById(userId).name = newName);
+
+        given().queryParam("q", newName)
+                .when().get("/coaches")
+                .then().statusCode(200)
+                .body("id", contains(userId.intValue()));
+    }
+
+    @Test
+    void rejectsOutOfRangeLimit() {
+        given().queryParam("limit", 0).when().get("/coaches").then().statusCode(400);
+        given().queryParam("limit", 101).when().get("/coaches").then().statusCode(400);
+    }
+
+    private static Long coach(String name, String specialty, String bio, CoachStatus status) {
+        CoachProfile p = coachProfile(user(name, UserRole.COACH), status);
+        p.specialty = specialty;
+        p.bio = bio;
+        return p.user.id;
+    }
+}
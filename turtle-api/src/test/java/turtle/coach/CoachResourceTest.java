@@ -58,4 +58,35 @@ class CoachResourceTest {
                 .then()
                 .statusCode(400);
     }
+
+    @Test
+    void getSlotsInRangeRequiresBothDates() {
+        given()
+                .queryParam("from", "2030-06-01")
+                .when().get("/coaches/1/slots/range")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    void getSlotsInRangeRejectsRangesLongerThanTheLimit() {
+        given()
+                .queryParam("from", "2030-06-01")
+                .queryParam("to", "2030-12-31")
+                .when().get("/coaches/1/slots/range")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    void getSlotsInRangeForCoachWithoutWindowsIsEmpty() {
+        given()
+                .queryParam("from", "2030-06-01")
+                .queryParam("to", "2030-06-30")
+                .queryParam("status", "AVAILABLE")
+                .when().get("/coaches/999999/slots/range")
+                .then()
+                .statusCode(200)
+                .body("$", hasSize(0));
+    }
 }
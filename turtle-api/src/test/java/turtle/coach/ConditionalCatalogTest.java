@@ -0,0 +1,93 @@
+package turtle.coach;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.response.Response;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import turtle.admin.AdminService;
+import turtle.coach.dto.CoachingServiceRequest;
+import turtle.user.AppUser;
+import turtle.user.UserRole;
+
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static turtle.TestData.coachProfile;
+import static turtle.TestData.user;
+
+@QuarkusTest
+class ConditionalCatalogTest {
+
+    @Inject
+    CoachingServiceMgmtService coachingServiceMgmtService;
+
+    @Inject
+    AdminService adminService;
+
+    @Test
+    void servicesAnswerNotModifiedUntilTheCatalogChanges() {
+        Long coachId = coach(CoachStatus.APPROVED);
+        String path = "/coaches/" + coachId + "/services";
+
+        Response first = given().when().get(path);
+        assertEquals(200, first.statusCode());
+        String etag = first.header("ETag");
+        assertNotNull(etag);
+        assertNotNull(first.header("Last-Modified"));
+
+        given().header("If-None-Match", etag).when().get(path)
+                .then().statusCode(304).header("ETag", etag);
+        given().header("If-Modified-Since", first.header("Last-Modified")).when().get(path)
+                .then().statusCode(304);
+
+        coachingServiceMgmtService.create(coachId, new CoachingServiceRequest("Stretching", null, List.of()));
+
+        given().header("If-None-Match", etag).when().get(path)
+                .then().statusCode(200)
+                .header("ETag", not(etag))
+                .body("name", contains("Stretching"));
+    }
+
+    @Test
+    void directoryChangesWhenACoachIsApproved() {
+        Long coachId = coach(CoachStatus.PENDING);
+        String etag = given().when().get("/coaches").then().statusCode(200).extract().header("ETag");
+
+        given().header("If-None-Match", etag).when().get("/coaches").then().statusCode(304);
+        adminService.approve(coachId);
+        given().header("If-None-Match", etag).when().get("/coaches").then().statusCode(200);
+    }
+
+    @Test
+    void directoryChangesWhenACoachProfileOrNameIsEdited() {
+        Long coachId = coach(CoachStatus.APPROVED);
+        String etag = given().when().get("/coaches").then().statusCode(200).extract().header("ETag");
+
+        QuarkusTransaction.requiringNew().run(() -> CoachProfile.findByUserId(coachId).orElseThrow().specialty = "Pilates");
+        String afterProfile = given().header("If-None-Match", etag).when().get("/coaches")
+                .then().statusCode(200).extract().header("ETag");
+
+        QuarkusTransaction.requiringNew().run(() -> AppUser.<AppUser>findById(coachId).name = "Renamed Coach");
+        given().header("If-None-Match", afterProfile).when().get("/coaches").then().statusCode(200);
+    }
+
+    @Test
+    void stampsArePerCoach() {
+        Long changed = coach(CoachStatus.APPROVED);
+        Long untouched = coach(CoachStatus.APPROVED);
+        String etag = given().when().get("/coaches/" + untouched + "/time-windows").then().extract().header("ETag");
+
+        coachingServiceMgmtService.create(changed, new CoachingServiceRequest("Yoga", null, List.of()));
+
+        given().header("If-None-Match", etag).when().get("/coaches/" + untouched + "/time-windows")
+                .then().statusCode(304);
+    }
+
+    private static Long coach(CoachStatus status) {
+        return QuarkusTransaction.requiringNew().call(() ->
+                coachProfile(user("Conditional Coach", UserRole.COACH), status).user.id);
+    }
+}
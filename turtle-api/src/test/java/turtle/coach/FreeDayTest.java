@@ -0,0 +1,99 @@
+package turtle.coach;
+
+import org.junit.jupiter.api.Test;
+import turtle.booking.Booking;
+import turtle.coach.dto.FreeRunResponse;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FreeDayTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 6, 3);
+
+    @Test
+    void findsEveryStartWithEnoughContiguousTime() {
+        TimeWindow tw = window(1L, 9, 12, 30);
+
+        List<FreeRunResponse> runs = runs(PriorityResolver.effectiveSlots(List.of(tw), List.of(), DAY), 90, 0);
+
+        assertEquals(List.of("09:00", "09:30", "10:00", "10:30"), starts(runs));
+        assertEquals(DAY.atTime(10, 30), runs.get(0).endsAt());
+        assertEquals(List.of(Availability.slotId(1L, 0), Availability.slotId(1L, 1), Availability.slotId(1L, 2)),
+                runs.get(0).availabilityIds());
+    }
+
+    @Test
+    void bookedSlotsSplitRuns() {
+        TimeWindow tw = window(1L, 9, 13, 60);
+        Availability booked = tw.slotAt(Availability.slotId(tw.id, 2));
+        booked.booking = new Booking();
+
+        List<FreeRunResponse> runs = runs(PriorityResolver.effectiveSlots(List.of(tw), List.of(booked), DAY), 120, 0);
+
+        // 09:00-11:00 is the only two-hour run; 11:00-12:00 is booked
+        assertEquals(List.of("09:00"), starts(runs));
+    }
+
+    @Test
+    void runsMaySpanAdjacentWindows() {
+        TimeWindow morning = window(1L, 9, 10, 60);
+        TimeWindow late = window(2L, 10, 11, 30);
+
+        List<FreeRunResponse> runs = runs(
+                PriorityResolver.effectiveSlots(List.of(morning, late), List.of(), DAY), 120, 0);
+
+        assertEquals(List.of("09:00"), starts(runs));
+        assertEquals(3, runs.get(0).availabilityIds().size());
+    }
+
+    @Test
+    void runsStartNoEarlierThanTheGivenMinute() {
+        TimeWindow tw = window(1L, 9, 12, 60);
+
+        List<FreeRunResponse> runs = runs(PriorityResolver.effectiveSlots(List.of(tw), List.of(), DAY), 60, 9 * 60 + 1);
+
+        assertEquals(List.of("10:00", "11:00"), starts(runs));
+    }
+
+    @Test
+    void runsEndNoLaterThanTheGivenMinute() {
+        TimeWindow tw = window(1L, 9, 12, 60);
+        List<FreeRunResponse> out = new ArrayList<>();
+
+        FreeDay.of(PriorityResolver.effectiveSlots(List.of(tw), List.of(), DAY))
+                .findRuns(DAY, 60, 0, 11 * 60, 50, out);
+
+        assertEquals(List.of("09:00", "10:00"), starts(out));
+    }
+
+    @Test
+    void emptyDayHasNoRuns() {
+        assertTrue(runs(List.of(), 15, 0).isEmpty());
+    }
+
+    private static List<FreeRunResponse> runs(List<Availability> slots, int minutes, int fromMinute) {
+        List<FreeRunResponse> out = new ArrayList<>();
+        FreeDay.of(slots).findRuns(DAY, minutes, fromMinute, 24 * 60, 50, out);
+        return out;
+    }
+
+    private static List<String> starts(List<FreeRunResponse> runs) {
+        return runs.stream().map(r -> r.startsAt().toLocalTime().toString()).toList();
+    }
+
+    private static TimeWindow window(Long id, int fromHour, int toHour, int unit) {
+        TimeWindow tw = new TimeWindow();
+        tw.id = id;
+        tw.startDate = DAY;
+        tw.endDate = DAY;
+        tw.dailyStartTime = LocalTime.of(fromHour, 0);
+        tw.dailyEndTime = LocalTime.of(toHour, 0);
+        tw.unitOfWorkMinutes = unit;
+        return tw;
+    }
+}
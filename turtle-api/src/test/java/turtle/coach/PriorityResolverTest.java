@@ -0,0 +1,95 @@
+package turtle.coach;
+
+import org.junit.jupiter.api.Test;
+import turtle.booking.Booking;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriorityResolverTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 6, 3);
+
+    @Test
+    void higherPriorityWindowShadowsOverlappingSlots() {
+        TimeWindow low = window(1L, 0, 9, 12, 60);
+        TimeWindow high = window(2L, 5, 10, 11, 30);
+
+        List<Availability> slots = PriorityResolver.effectiveSlots(List.of(low, high), List.of(), DAY);
+
+        assertEquals(List.of("09:00", "10:00", "10:30", "11:00"), starts(slots));
+        assertEquals(high.id, slots.get(1).timeWindow.id);
+        assertEquals(low.id, slots.get(3).timeWindow.id);
+    }
+
+    @Test
+    void equalPriorityGoesToTheSmallestId() {
+        TimeWindow older = window(1L, 0, 9, 10, 60);
+        TimeWindow newer = window(2L, 0, 9, 10, 30);
+
+        List<Availability> slots = PriorityResolver.effectiveSlots(List.of(newer, older), List.of(), DAY);
+
+        assertEquals(List.of("09:00"), starts(slots));
+        assertTrue(slots.stream().allMatch(s -> s.timeWindow == older));
+        assertFalse(PriorityResolver.isOffered(newer.slotAt(Availability.slotId(newer.id, 0)), List.of(older, newer)));
+        assertTrue(PriorityResolver.isOffered(older.slotAt(Availability.slotId(older.id, 0)), List.of(older, newer)));
+    }
+
+    @Test
+    void bookedSlotsSurviveShadowingAndBlockOverlappingFreeSlots() {
+        TimeWindow low = window(1L, 0, 9, 11, 60);
+        Availability booked = low.slotAt(Availability.slotId(low.id, 3 * 2));
+        booked.booking = new Booking();
+        TimeWindow high = window(2L, 5, 9, 11, 30);
+
+        List<Availability> slots = PriorityResolver.effectiveSlots(List.of(low, high), List.of(booked), DAY);
+
+        // 09:00-10:00 from low is booked; high's 09:00 and 09:30 overlap it
+        assertEquals(List.of("09:00", "10:00", "10:30"), starts(slots));
+        assertEquals(AvailabilityStatus.BOOKED, slots.get(0).status());
+        assertFalse(PriorityResolver.isOffered(low.slotAt(Availability.slotId(low.id, 3 * 2 + 1)), List.of(low, high)));
+        assertTrue(PriorityResolver.isOffered(high.slotAt(Availability.slotId(high.id, 3 * 4 + 2)), List.of(low, high)));
+    }
+
+    @Test
+    void resolvesHundredsOfWindowsWellUnderAMillisecond() {
+        List<TimeWindow> windows = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            int start = 6 + i % 12;
+            windows.add(window((long) i + 1, i % 7, start, start + 2, 15));
+        }
+        for (int i = 0; i < 200; i++) {
+            PriorityResolver.effectiveSlots(windows, List.of(), DAY);
+        }
+
+        int runs = 1000;
+        long t0 = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            PriorityResolver.effectiveSlots(windows, List.of(), DAY);
+        }
+        double micros = (System.nanoTime() - t0) / 1_000.0 / runs;
+
+        assertTrue(micros < 1_000, "average resolution took " + micros + " µs");
+    }
+
+    private static List<String> starts(List<Availability> slots) {
+        return slots.stream().map(s -> s.startsAt.toLocalTime().toString()).toList();
+    }
+
+    private static TimeWindow window(Long id, int priority, int fromHour, int toHour, int unit) {
+        TimeWindow tw = new TimeWindow();
+        tw.id = id;
+        tw.priority = priority;
+        tw.startDate = DAY.minusDays(3);
+        tw.endDate = DAY.plusDays(3);
+        tw.dailyStartTime = LocalTime.of(fromHour, 0);
+        tw.dailyEndTime = LocalTime.of(toHour, 0);
+        tw.unitOfWorkMinutes = unit;
+        return tw;
+    }
+}
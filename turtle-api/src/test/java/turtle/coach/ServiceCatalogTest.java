@@ -0,0 +1,105 @@
+package turtle.coach;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import turtle.booking.BookingService;
+import turtle.coach.dto.CoachingServiceRequest;
+import turtle.user.AppUser;
+import turtle.user.UserRole;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static turtle.TestData.oneHourWindow;
+import static turtle.TestData.service;
+import static turtle.TestData.user;
+
+@QuarkusTest
+class ServiceCatalogTest {
+
+    @Inject
+    CoachingServiceMgmtService coachingServiceMgmtService;
+
+    @Inject
+    BookingService bookingService;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Test
+    void listingIsServedFromTheSnapshotAndFollowsChanges() {
+        Long coachId = QuarkusTransaction.requiringNew().call(() -> user("Catalog Coach", UserRole.COACH).id);
+        CoachingService extra = coachingServiceMgmtService.create(coachId,
+                new CoachingServiceRequest("Cool-down", "Ten minutes", List.of()));
+        CoachingService main = coachingServiceMgmtService.create(coachId,
+                new CoachingServiceRequest("Session", null, List.of(extra.id)));
+        String path = "/coaches/" + coachId + "/services";
+
+        given().when().get(path).then().statusCode(200)
+                .body("name", contains("Cool-down", "Session"))
+                .body("[1].extras.name", contains("Cool-down"));
+
+        Statistics stats = sessionFactory.getStatistics();
+        stats.clear();
+        given().when().get(path).then().statusCode(200);
+        given().when().get(path + "/" + main.id).then().statusCode(200).body("extras.id", contains(extra.id.intValue()));
+        assertEquals(0, stats.getPrepareStatementCount());
+
+        coachingServiceMgmtService.update(main.id, coachId, new CoachingServiceRequest("Session", null, List.of()));
+        given().when().get(path).then().statusCode(200).body("[1].extras", empty());
+    }
+
+    @Test
+    void extrasAreOfferedOneLevelDeep() {
+        CoachingService main = unsaved(1L), extra = unsaved(2L), nested = unsaved(3L);
+        CoachCatalog catalog = CoachCatalog.of(9L, List.of(main, extra, nested),
+                List.of(new Object[]{1L, 2L}, new Object[]{1L, 3L}, new Object[]{3L, 2L}));
+
+        assertTrue(catalog.offersExtra(1L, 2L));
+        assertFalse(catalog.offersExtra(1L, 3L), "an extra with extras of its own is not bookable as one");
+        assertFalse(catalog.offersExtra(2L, 1L));
+    }
+
+    @Test
+    void bookingExtrasAreValidatedAgainstTheCurrentCatalog() {
+        LocalDate day = LocalDate.now().plusDays(40);
+        Long[] ids = QuarkusTransaction.requiringNew().call(() -> {
+            AppUser coach = user("Catalog Booking Coach", UserRole.COACH);
+            AppUser client = user("Catalog Booking Client", UserRole.CLIENT);
+            CoachingService extra = service(coach, "Towel");
+            CoachingService main = service(coach, "Swim");
+            TimeWindow tw = oneHourWindow(coach, day);
+            tw.service = main;
+            return new Long[]{coach.id, client.id, tw.id, main.id, extra.id};
+        });
+        Long coachId = ids[0], clientId = ids[1], mainId = ids[3], extraId = ids[4];
+        List<Long> slot = List.of(Availability.slotId(ids[2], 0));
+
+        WebApplicationException e = assertThrows(WebApplicationException.class,
+                () -> bookingService.create(clientId, slot, null, List.of(extraId)));
+        assertEquals(400, e.getResponse().getStatus());
+        WebApplicationException unknown = assertThrows(WebApplicationException.class,
+                () -> bookingService.create(clientId, slot, null, List.of(Long.MAX_VALUE)));
+        assertEquals(404, unknown.getResponse().getStatus());
+
+        coachingServiceMgmtService.update(mainId, coachId, new CoachingServiceRequest("Swim", null, List.of(extraId)));
+
+        assertEquals(List.of(extraId),
+                bookingService.create(clientId, slot, null, List.of(extraId)).extras.stream().map(x -> x.id).toList());
+    }
+
+    private static CoachingService unsaved(Long id) {
+        CoachingService s = new CoachingService();
+        s.id = id;
+        s.name = "Service " + id;
+        return s;
+    }
+}
@@ -0,0 +1,48 @@
+package turtle.coach;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import turtle.booking.Booking;
+import turtle.booking.BookingService;
+import turtle.user.AppUser;
+import turtle.user.UserRole;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.is;
+import static turtle.TestData.oneHourWindow;
+import static turtle.TestData.user;
+
+@QuarkusTest
+class SlotCacheTest {
+
+    @Inject
+    BookingService bookingService;
+
+    @Test
+    void bookingAndCancellationEvictTheCachedDay() {
+        LocalDate day = LocalDate.now().plusDays(40);
+        Long[] ids = QuarkusTransaction.requiringNew().call(() -> {
+            AppUser coach = user("Cached Coach", UserRole.COACH);
+            AppUser client = user("Cached Client", UserRole.CLIENT);
+            TimeWindow tw = oneHourWindow(coach, day);
+            return new Long[]{coach.id, client.id, tw.id};
+        });
+        String slots = "/coaches/" + ids[0] + "/slots";
+
+        given().queryParam("date", day.toString()).get(slots)
+                .then().statusCode(200).body("[0].status", is("AVAILABLE"));
+
+        Booking booking = bookingService.create(ids[1], List.of(Availability.slotId(ids[2], 0)), null, null);
+        given().queryParam("date", day.toString()).get(slots)
+                .then().statusCode(200).body("[0].status", is("BOOKED"));
+
+        bookingService.cancel(booking.id, ids[1]);
+        given().queryParam("date", day.toString()).get(slots)
+                .then().statusCode(200).body("[0].status", is("AVAILABLE"));
+    }
+}
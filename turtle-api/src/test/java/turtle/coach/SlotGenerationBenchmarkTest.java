@@ -0,0 +1,89 @@
+package turtle.coach;
+
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import turtle.user.AppUser;
+import turtle.user.UserRole;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static turtle.TestData.user;
+
+/**
+ * Compares the old per-entity persist() loop with the set-based generate_series
+ * insert when materializing every slot of a time window.
+ * Run with {@code ./mvnw test -Dtest=SlotGenerationBenchmarkTest -Dbenchmark=true}.
+ */
+@QuarkusTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SlotGenerationBenchmarkTest {
+
+    @Test
+    void compareRowsPerSecond() {
+        Long coachId = QuarkusTransaction.requiringNew().call(() -> user("Benchmark Coach", UserRole.COACH).id);
+
+        LocalDate start = LocalDate.of(2031, 1, 1);
+        run(coachId, "1 day", start, start);
+        run(coachId, "1 month", start, start.plusMonths(1).minusDays(1));
+        run(coachId, "1 year", start, start.plusYears(1).minusDays(1));
+    }
+
+    private void run(Long coachId, String label, LocalDate from, LocalDate to) {
+        Long loopWindow = window(coachId, from, to);
+        Long setWindow = window(coachId, from, to);
+
+        long t0 = System.nanoTime();
+        int loopRows = QuarkusTransaction.requiringNew().call(() -> {
+            TimeWindow tw = TimeWindow.findById(loopWindow);
+            int rows = 0;
+            LocalDate day = from;
+            while (!day.isAfter(to)) {
+                for (Availability slot : tw.slotsOn(day)) {
+                    slot.persist();
+                    rows++;
+                }
+                day = day.plusDays(1);
+            }
+            return rows;
+        });
+        long t1 = System.nanoTime();
+        int setRows = QuarkusTransaction.requiringNew().call(() -> {
+            TimeWindow tw = TimeWindow.findById(setWindow);
+            return Availability.insertRange(setWindow, 0, (int) tw.slotCount() - 1, null);
+        });
+        long t2 = System.nanoTime();
+
+        assertEquals(loopRows, setRows);
+        Log.infof("%-8s %6d rows | persist loop %10.0f rows/s | generate_series %10.0f rows/s",
+                label, setRows, rowsPerSecond(loopRows, t1 - t0), rowsPerSecond(setRows, t2 - t1));
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            Availability.delete("timeWindow.id IN ?1", List.of(loopWindow, setWindow));
+            TimeWindow.delete("id IN ?1", List.of(loopWindow, setWindow));
+        });
+    }
+
+    private Long window(Long coachId, LocalDate from, LocalDate to) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            TimeWindow tw = new TimeWindow();
+            tw.coach = AppUser.findById(coachId);
+            tw.startDate = from;
+            tw.endDate = to;
+            tw.dailyStartTime = LocalTime.of(8, 0);
+            tw.dailyEndTime = LocalTime.of(18, 0);
+            tw.unitOfWorkMinutes = 15;
+            tw.persist();
+            return tw.id;
+        });
+    }
+
+    private static double rowsPerSecond(int rows, long nanos) {
+        return rows / (nanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,75 @@
+package turtle.coach;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import turtle.booking.BookingService;
+import turtle.user.AppUser;
+import turtle.user.UserRole;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static turtle.TestData.oneHourWindow;
+import static turtle.TestData.user;
+import static turtle.TestData.window;
+
+@QuarkusTest
+class SlotRangeTest {
+
+    @Inject
+    BookingService bookingService;
+
+    @Test
+    void groupsSlotsByDayAndFiltersByStatus() {
+        LocalDate first = LocalDate.now().plusDays(90);
+        LocalDate third = first.plusDays(2);
+        Long[] ids = QuarkusTransaction.requiringNew().call(() -> {
+            AppUser coach = user("Range Coach", UserRole.COACH);
+            AppUser client = user("Range Client", UserRole.CLIENT);
+            TimeWindow morning = window(coach, first, 9, 11, 60);
+            oneHourWindow(coach, third);
+            return new Long[]{coach.id, client.id, morning.id};
+        });
+        bookingService.create(ids[1], List.of(Availability.slotId(ids[2], 0)), null, null);
+        String path = "/coaches/" + ids[0] + "/slots/range";
+
+        // Nothing is offered on the second day, so it is left out
+        given().queryParam("from", first.toString()).queryParam("to", third.toString())
+                .when().get(path)
+                .then().statusCode(200)
+                .body("date", contains(first.toString(), third.toString()))
+                .body("[0].slots.startsAt", contains(first + "T09:00:00", first + "T10:00:00"))
+                .body("[0].slots.status", contains("BOOKED", "AVAILABLE"))
+                .body("[1].slots.status", contains("AVAILABLE"));
+
+        given().queryParam("from", first.toString()).queryParam("to", third.toString())
+                .queryParam("status", "AVAILABLE")
+                .when().get(path)
+                .then().statusCode(200)
+                .body("date", contains(first.toString(), third.toString()))
+                .body("[0].slots.startsAt", contains(first + "T10:00:00"));
+
+        // Days whose slots are all filtered out are omitted as well
+        given().queryParam("from", first.toString()).queryParam("to", third.toString())
+                .queryParam("status", "BOOKED")
+                .when().get(path)
+                .then().statusCode(200)
+                .body("date", contains(first.toString()))
+                .body("[0].slots.startsAt", contains(first + "T09:00:00"));
+
+        given().queryParam("from", first.toString()).queryParam("to", third.toString())
+                .queryParam("status", "BOOKED", "AVAILABLE")
+                .when().get(path)
+                .then().statusCode(200)
+                .body("[0].slots.status", contains("BOOKED", "AVAILABLE"));
+
+        given().queryParam("from", first.plusDays(1).toString()).queryParam("to", first.plusDays(1).toString())
+                .when().get(path)
+                .then().statusCode(200)
+                .body("$", empty());
+    }
+}
@@ -0,0 +1,60 @@
+package turtle.coach;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeWindowTest {
+
+    @Test
+    void slotsOnComputesEveryUnitOfTheDay() {
+        TimeWindow tw = window();
+
+        List<Availability> slots = tw.slotsOn(LocalDate.of(2030, 6, 2));
+
+        assertEquals(4, slots.size());
+        assertEquals(LocalDateTime.of(2030, 6, 2, 9, 0), slots.get(0).startsAt);
+        assertEquals(LocalDateTime.of(2030, 6, 2, 11, 0), slots.get(3).endsAt);
+    }
+
+    @Test
+    void slotsOnIsEmptyOutsideTheWindowRange() {
+        assertTrue(window().slotsOn(LocalDate.of(2030, 6, 8)).isEmpty());
+    }
+
+    @Test
+    void slotIdRoundTripsThroughSlotAt() {
+        TimeWindow tw = window();
+        Availability slot = tw.slotsOn(LocalDate.of(2030, 6, 3)).get(1);
+
+        Availability resolved = tw.slotAt(slot.id);
+
+        assertEquals(tw.id, Availability.windowIdOf(slot.id));
+        assertEquals(slot.startsAt, resolved.startsAt);
+        assertEquals(slot.endsAt, resolved.endsAt);
+    }
+
+    @Test
+    void slotAtRejectsIdsOutsideTheWindow() {
+        TimeWindow tw = window();
+
+        assertNull(tw.slotAt(Availability.slotId(tw.id, (int) tw.slotCount())));
+        assertNull(tw.slotAt(Availability.slotId(tw.id + 1, 0)));
+    }
+
+    private TimeWindow window() {
+        TimeWindow tw = new TimeWindow();
+        tw.id = 7L;
+        tw.startDate = LocalDate.of(2030, 6, 1);
+        tw.endDate = LocalDate.of(2030, 6, 7);
+        tw.dailyStartTime = LocalTime.of(9, 0);
+        tw.dailyEndTime = LocalTime.of(11, 15);
+        tw.unitOfWorkMinutes = 30;
+        return tw;
+    }
+}
@@ -0,0 +1,126 @@
+package turtle.common;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mindrot.jbcrypt.BCrypt;
+import turtle.booking.Booking;
+import turtle.booking.BookingService;
+import turtle.coach.Availability;
+import turtle.coach.CoachStatus;
+import turtle.coach.CoachingService;
+import turtle.coach.ServiceCatalog;
+import turtle.coach.TimeWindow;
+import turtle.user.AppUser;
+import turtle.user.UserRole;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static turtle.TestData.approvedBooking;
+import static turtle.TestData.coachProfile;
+import static turtle.TestData.service;
+import static turtle.TestData.user;
+import static turtle.TestData.window;
+
+/**
+ * Measures how many database round trips warm second-level cache regions save on
+ * the booking and chat flows, logging cold and warm statement counts and the hit
+ * ratio of the warm run.
+ * Run with {@code ./mvnw test -Dtest=SecondLevelCacheBenchmarkTest -Dbenchmark=true}.
+ */
+@QuarkusTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SecondLevelCacheBenchmarkTest {
+
+    private static final Logger LOG = Logger.getLogger(SecondLevelCacheBenchmarkTest.class);
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    BookingService bookingService;
+
+    @Inject
+    ServiceCatalog serviceCatalog;
+
+    @Test
+    void warmCacheSavesRoundTripsWhenBooking() {
+        LocalDate day = LocalDate.now().plusDays(60);
+        Long[] ids = QuarkusTransaction.requiringNew().call(() -> {
+            AppUser coach = coachProfile(user("Bench Booking Coach", UserRole.COACH), CoachStatus.APPROVED).user;
+            AppUser client = user("Bench Booking Client", UserRole.CLIENT);
+            CoachingService extra = service(coach, "Recording");
+            CoachingService main = service(coach, "Lesson");
+            main.extras.add(extra);
+            TimeWindow tw = window(coach, day, 9, 11, 30);
+            tw.service = main;
+            return new Long[]{coach.id, client.id, tw.id, extra.id};
+        });
+        serviceCatalog.forCoach(ids[0]); // the catalog is an application cache, not under test here
+        sessionFactory.getCache().evictAllRegions();
+
+        long cold = measure(() -> bookingService.create(ids[1], slots(ids[2], 0), null, List.of(ids[3])));
+        long warm = measure(() -> bookingService.create(ids[1], slots(ids[2], 2), null, List.of(ids[3])));
+
+        report("booking", cold, warm);
+        assertTrue(warm < cold, "expected fewer statements warm (" + warm + ") than cold (" + cold + ")");
+    }
+
+    @Test
+    void warmCacheSavesRoundTripsInChat() {
+        String password = "bench-secret";
+        Long[] ids = QuarkusTransaction.requiringNew().call(() -> {
+            AppUser coach = coachProfile(user("Bench Chat Coach", UserRole.COACH, BCrypt.hashpw(password, BCrypt.gensalt(4))),
+                    CoachStatus.APPROVED).user;
+            AppUser client = user("Bench Chat Client", UserRole.CLIENT);
+            Booking b = approvedBooking(client, coach);
+            return new Long[]{b.id, coach.id};
+        });
+        String email = QuarkusTransaction.requiringNew().call(() -> AppUser.<AppUser>findById(ids[1]).email);
+        Runnable chat = () -> {
+            String token = given().contentType(ContentType.JSON)
+                    .body("{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}")
+                    .when().post("/auth/login").then().statusCode(200).extract().path("token");
+            given().auth().oauth2(token).when().get("/bookings/" + ids[0] + "/messages").then().statusCode(200);
+            given().auth().oauth2(token).contentType(ContentType.JSON).body("{\"content\":\"bench\"}")
+                    .when().post("/bookings/" + ids[0] + "/messages").then().statusCode(201);
+        };
+        chat.run(); // warm the application-level caches, which are not under test here
+        sessionFactory.getCache().evictAllRegions();
+
+        long cold = measure(chat);
+        long warm = measure(chat);
+
+        report("chat", cold, warm);
+        assertTrue(warm < cold, "expected fewer statements warm (" + warm + ") than cold (" + cold + ")");
+    }
+
+    private long measure(Runnable flow) {
+        Statistics stats = sessionFactory.getStatistics();
+        stats.clear();
+        flow.run();
+        return stats.getPrepareStatementCount();
+    }
+
+    private void report(String flow, long cold, long warm) {
+        Statistics stats = sessionFactory.getStatistics();
+        long hits = stats.getSecondLevelCacheHitCount() + stats.getQueryCacheHitCount();
+        long misses = stats.getSecondLevelCacheMissCount() + stats.getQueryCacheMissCount();
+        double ratio = hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+        LOG.infof("%s flow: %d statements cold, %d warm (%d round trips saved); warm hit ratio %.2f",
+                flow, cold, warm, cold - warm, ratio);
+    }
+
+    private static List<Long> slots(Long windowId, int first) {
+        return List.of(Availability.slotId(windowId, first), Availability.slotId(windowId, first + 1));
+    }
+}
@@ -0,0 +1,70 @@
+package turtle.common;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import turtle.admin.AdminService;
+import turtle.coach.CoachProfile;
+import turtle.coach.CoachStatus;
+import turtle.coach.CoachingService;
+import turtle.coach.CoachingServiceMgmtService;
+import turtle.coach.dto.CoachingServiceRequest;
+import turtle.user.UserRole;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static turtle.TestData.coachProfile;
+import static turtle.TestData.user;
+
+/**
+ * Second-level cache behaviour for the reference entities: writes through the
+ * services must be visible on the next read. The round-trip savings are measured
+ * by {@link SecondLevelCacheBenchmarkTest}.
+ */
+@QuarkusTest
+class SecondLevelCacheTest {
+
+    @Inject
+    AdminService adminService;
+
+    @Inject
+    CoachingServiceMgmtService coachingServiceMgmtService;
+
+    @Test
+    void coachStatusChangesAreVisibleAfterCaching() {
+        Long coachId = QuarkusTransaction.requiringNew().call(() -> coachProfile(user("Cached Status Coach", UserRole.COACH), CoachStatus.PENDING).user.id);
+        assertEquals(CoachStatus.PENDING, statusOf(coachId));
+
+        adminService.approve(coachId);
+        assertEquals(CoachStatus.APPROVED, statusOf(coachId));
+
+        adminService.reject(coachId);
+        assertEquals(CoachStatus.REJECTED, statusOf(coachId));
+    }
+
+    @Test
+    void extrasChangesAreVisibleAfterCaching() {
+        Long coachId = QuarkusTransaction.requiringNew().call(() -> coachProfile(user("Cached Extras Coach", UserRole.COACH), CoachStatus.APPROVED).user.id);
+        CoachingService first = coachingServiceMgmtService.create(coachId, new CoachingServiceRequest("Mat", null, List.of()));
+        CoachingService second = coachingServiceMgmtService.create(coachId, new CoachingServiceRequest("Blocks", null, List.of()));
+        CoachingService main = coachingServiceMgmtService.create(coachId,
+                new CoachingServiceRequest("Yoga", null, List.of(first.id)));
+        assertEquals(List.of(first.id), extraIdsOf(main.id));
+
+        coachingServiceMgmtService.update(main.id, coachId, new CoachingServiceRequest("Yoga flow", null, List.of(second.id)));
+
+        assertEquals(List.of(second.id), extraIdsOf(main.id));
+        assertEquals("Yoga flow", QuarkusTransaction.requiringNew().call(() -> CoachingService.<CoachingService>findById(main.id).name));
+    }
+
+    private static CoachStatus statusOf(Long userId) {
+        return QuarkusTransaction.requiringNew().call(() -> CoachProfile.findByUserId(userId).orElseThrow().status);
+    }
+
+    private static List<Long> extraIdsOf(Long serviceId) {
+        return QuarkusTransaction.requiringNew().call(() ->
+                CoachingService.<CoachingService>findById(serviceId).extras.stream().map(e -> e.id).toList());
+    }
+}
@@ -0,0 +1,121 @@
+package turtle.common;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import io.smallrye.jwt.build.Jwt;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import turtle.booking.Booking;
+import turtle.booking.BookingService;
+import turtle.chat.ChatService;
+import turtle.coach.Availability;
+import turtle.coach.CoachStatus;
+import turtle.coach.TimeWindow;
+import turtle.user.AppUser;
+import turtle.user.UserRole;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static turtle.TestData.coachProfile;
+import static turtle.TestData.user;
+import static turtle.TestData.window;
+
+/**
+ * Pins the number of SQL statements each endpoint may issue, so an association
+ * that silently starts loading per row fails the build instead of production.
+ */
+@QuarkusTest
+class StatementBudgetTest {
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    BookingService bookingService;
+
+    @Inject
+    ChatService chatService;
+
+    Long coachId;
+    Long clientId;
+    Long bookingId;
+    LocalDate day;
+
+    @BeforeEach
+    void fixture() {
+        day = LocalDate.now().plusDays(20);
+        Long[] ids = QuarkusTransaction.requiringNew().call(() -> {
+            AppUser coach = user("Budget Coach", UserRole.COACH);
+            coachProfile(coach, CoachStatus.APPROVED);
+            AppUser client = user("Budget Client", UserRole.CLIENT);
+            TimeWindow tw = window(coach, day, 9, 12, 30);
+            return new Long[]{coach.id, client.id, tw.id};
+        });
+        coachId = ids[0];
+        clientId = ids[1];
+        Booking booking = bookingService.create(clientId,
+                List.of(Availability.slotId(ids[2], 0), Availability.slotId(ids[2], 1)), null, null);
+        bookingId = booking.id;
+        bookingService.approve(bookingId, coachId);
+        for (int i = 0; i < 5; i++) {
+            chatService.sendMessage(bookingId, i % 2 == 0 ? clientId : coachId, "message " + i);
+        }
+    }
+
+    @Test
+    void publicCatalogEndpoints() {
+        assertBudget(1, r -> r.get("/coaches"));
+        assertBudget(1, r -> r.get("/coaches/" + coachId + "/time-windows"));
+        assertBudget(2, r -> r.queryParam("date", day.toString()).get("/coaches/" + coachId + "/slots"));
+    }
+
+    @Test
+    void conditionalCatalogRequestsSkipTheDatabase() {
+        String slots = "/coaches/" + coachId + "/slots";
+        String etag = given().queryParam("date", day.toString()).get(slots).header("ETag");
+        assertBudget(0, r -> r.header("If-None-Match", etag).queryParam("date", day.toString()).get(slots));
+    }
+
+    @Test
+    void bookingEndpoints() {
+        assertBudget(1, r -> as(r, clientId, "CLIENT").get("/bookings"));
+        assertBudget(2, r -> as(r, clientId, "CLIENT").get("/bookings/" + bookingId));
+    }
+
+    @Test
+    void chatEndpoints() {
+        assertBudget(2, r -> as(r, clientId, "CLIENT").get("/bookings/" + bookingId + "/messages"));
+        // An idle poll: the participant check is cached, leaving one probe of the (booking_id, id) index
+        assertBudget(1, r -> as(r, clientId, "CLIENT")
+                .queryParam("after", Long.MAX_VALUE).get("/bookings/" + bookingId + "/messages"));
+        // booking with participants (check cached), insert message, outbox email (no phone on file)
+        assertBudget(3, r -> as(r, coachId, "COACH")
+                .contentType(ContentType.JSON)
+                .body("{\"content\":\"within budget\"}")
+                .post("/bookings/" + bookingId + "/messages"));
+    }
+
+    private void assertBudget(long budget, Function<RequestSpecification, Response> call) {
+        Statistics stats = sessionFactory.getStatistics();
+        stats.clear();
+        int status = call.apply(given()).statusCode();
+        long statements = stats.getPrepareStatementCount();
+        assertTrue(status < 400, "request failed with " + status);
+        assertTrue(statements <= budget, "expected at most " + budget + " statements but got " + statements);
+    }
+
+    private static RequestSpecification as(RequestSpecification r, Long userId, String group) {
+        String token = Jwt.issuer("turtle-api").subject(String.valueOf(userId)).groups(group).sign();
+        return r.auth().oauth2(token);
+    }
+}
@@ -0,0 +1,91 @@
+package turtle.notification;
+
+import io.quarkus.mailer.MockMailbox;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import turtle.booking.Booking;
+import turtle.chat.ChatService;
+import turtle.user.AppUser;
+import turtle.user.UserRole;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static turtle.TestData.approvedBooking;
+import static turtle.TestData.user;
+
+@QuarkusTest
+class ChatDigestTest {
+
+    @Inject
+    ChatService chatService;
+
+    @Inject
+    OutboxRelay relay;
+
+    @Inject
+    MockMailbox mailbox;
+
+    @Test
+    void chatLinesToTheSameRecipientAreCoalescedIntoOneDigest() {
+        Fixture f = fixture();
+        for (int i = 0; i < 5; i++) {
+            chatService.sendMessage(f.bookingId(), f.coachId(), "line " + i);
+        }
+
+        List<OutboxMessage> digests = outboxFor(f.clientEmail());
+        assertEquals(1, digests.size());
+        OutboxMessage digest = digests.get(0);
+        assertEquals(5, digest.itemCount);
+        assertTrue(digest.subject.startsWith("New messages from"));
+        for (int i = 0; i < 5; i++) assertTrue(digest.body.contains("line " + i));
+
+        relay.drain();
+
+        assertEquals(OutboxStatus.SENT, outboxFor(f.clientEmail()).get(0).status);
+        assertEquals(1, mailbox.getMessagesSentTo(f.clientEmail()).size());
+    }
+
+    @Test
+    void digestIsSkippedWhenTheRecipientHasReadTheChat() {
+        Fixture f = fixture();
+        chatService.sendMessage(f.bookingId(), f.coachId(), "are you there?");
+        chatService.listMessages(f.bookingId(), f.clientId(), null, 100);
+
+        relay.drain();
+
+        assertEquals(OutboxStatus.SKIPPED, outboxFor(f.clientEmail()).get(0).status);
+        assertTrue(mailbox.getMessagesSentTo(f.clientEmail()).isEmpty());
+    }
+
+    @Test
+    void linesAfterADigestWasSentStartANewOne() {
+        Fixture f = fixture();
+        chatService.sendMessage(f.bookingId(), f.coachId(), "first");
+        relay.drain();
+        chatService.sendMessage(f.bookingId(), f.coachId(), "second");
+
+        List<OutboxMessage> digests = outboxFor(f.clientEmail());
+        assertEquals(2, digests.size());
+        assertEquals(OutboxStatus.PENDING, digests.get(1).status);
+        assertEquals(1, digests.get(1).itemCount);
+    }
+
+    private record Fixture(Long bookingId, Long clientId, Long coachId, String clientEmail) {}
+
+    private static Fixture fixture() {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            AppUser coach = user("Digest Coach", UserRole.COACH);
+            AppUser client = user("Digest Client", UserRole.CLIENT);
+            Booking b = approvedBooking(client, coach);
+            return new Fixture(b.id, client.id, coach.id, client.email);
+        });
+    }
+
+    private static List<OutboxMessage> outboxFor(String recipient) {
+        return QuarkusTransaction.requiringNew().call(() ->
+                OutboxMessage.list("recipient = ?1 ORDER BY id", recipient));
+    }
+}
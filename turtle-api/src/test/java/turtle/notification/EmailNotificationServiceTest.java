@@ -1,12 +1,12 @@
 package turtle.notification;
 
+import io.quarkus.mailer.Mail;
 import io.quarkus.mailer.MockMailbox;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import turtle.booking.Booking;
-import turtle.chat.ChatMessage;
 import turtle.coach.Availability;
 import turtle.user.AppUser;
 import turtle.user.UserRole;
@@ -14,6 +14,7 @@ import turtle.user.UserRole;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -32,87 +33,87 @@ class EmailNotificationServiceTest {
     }
 
     @Test
-    void sendBookingCreatedSendsEmailToCoach() {
-        emailNotifications.sendBookingCreated(buildBooking());
+    void bookingCreatedMailReachesTheCoach() {
+        deliver(emailNotifications.bookingCreated("coach@example.com", BookingNotification.of(buildBooking())));
 
-        List<io.quarkus.mailer.Mail> messages = mailbox.getMessagesSentTo("coach@example.com");
+        List<Mail> messages = mailbox.getMessagesSentTo("coach@example.com");
         assertEquals(1, messages.size());
         assertTrue(messages.get(0).getSubject().contains("New booking request"));
     }
 
     @Test
-    void sendBookingApprovedSendsEmailToClient() {
-        emailNotifications.sendBookingApproved(buildBooking());
+    void bookingApprovedMailReachesTheClient() {
+        deliver(emailNotifications.bookingApproved("client@example.com", BookingNotification.of(buildBooking())));
 
-        List<io.quarkus.mailer.Mail> messages = mailbox.getMessagesSentTo("client@example.com");
+        List<Mail> messages = mailbox.getMessagesSentTo("client@example.com");
         assertEquals(1, messages.size());
         assertTrue(messages.get(0).getSubject().contains("confirmed"));
     }
 
     @Test
-    void sendBookingRejectedSendsEmailToClient() {
-        emailNotifications.sendBookingRejected(buildBooking());
+    void bookingRejectedMailReachesTheClient() {
+        deliver(emailNotifications.bookingRejected("client@example.com", BookingNotification.of(buildBooking())));
 
-        List<io.quarkus.mailer.Mail> messages = mailbox.getMessagesSentTo("client@example.com");
+        List<Mail> messages = mailbox.getMessagesSentTo("client@example.com");
         assertEquals(1, messages.size());
         assertTrue(messages.get(0).getSubject().contains("not accepted"));
     }
 
     @Test
-    void sendChatMessageSendsEmailToOtherParticipant() {
-        Booking booking = buildBooking();
-        ChatMessage msg = new ChatMessage();
-        msg.booking = booking;
-        msg.sender = booking.client;
-        msg.content = "Hello coach!";
+    void chatMessageMailNamesTheSender() {
+        deliver(emailNotifications.chatMessage("coach@example.com", new ChatNotification("Alice", "Hello coach!")));
 
-        emailNotifications.sendChatMessage(msg);
-
-        // sender is client, so coach should receive the email
-        List<io.quarkus.mailer.Mail> messages = mailbox.getMessagesSentTo("coach@example.com");
+        List<Mail> messages = mailbox.getMessagesSentTo("coach@example.com");
         assertEquals(1, messages.size());
-        assertTrue(messages.get(0).getSubject().contains("New message from"));
+        assertTrue(messages.get(0).getSubject().contains("New message from Alice"));
     }
 
     @Test
-    void sendSkipsWhenEmailIsNull() {
-        Booking booking = buildBooking();
-        booking.coach.email = null;
-
-        emailNotifications.sendBookingCreated(booking);
+    void noMailIsBuiltWithoutAnAddress() {
+        BookingNotification n = BookingNotification.of(buildBooking());
 
-        assertEquals(0, mailbox.getTotalMessagesSent());
+        assertNull(emailNotifications.bookingCreated(null, n));
+        assertNull(emailNotifications.bookingCreated("  ", n));
     }
 
     @Test
-    void sendSkipsWhenEmailIsBlank() {
-        Booking booking = buildBooking();
-        booking.coach.email = "  ";
-
-        emailNotifications.sendBookingCreated(booking);
+    void htmlContentIsEscapedInChatMessages() {
+        Mail mail = emailNotifications.chatMessage("coach@example.com",
+                new ChatNotification("Alice", "<script>alert('xss')</script>"));
 
-        assertEquals(0, mailbox.getTotalMessagesSent());
+        String html = mail.getHtml();
+        assertTrue(html.contains("&lt;script&gt;"), "HTML should be escaped");
+        assertFalse(html.contains("<script>"), "Raw script tag must not appear in HTML body");
     }
 
     @Test
-    void htmlContentIsEscapedInChatMessages() {
-        Booking booking = buildBooking();
-        ChatMessage msg = new ChatMessage();
-        msg.booking = booking;
-        msg.sender = booking.client;
-        msg.content = "<script>alert('xss')</script>";
+    void whatsAppTemplatesAreNotHtmlEscaped() {
+        String text = Templates.chatLineWhatsApp(new ChatNotification("Bob", "<3 & \"more\"")).render();
 
-        emailNotifications.sendChatMessage(msg);
+        assertEquals("Bob: <3 & \"more\"", text);
+    }
 
-        List<io.quarkus.mailer.Mail> messages = mailbox.getMessagesSentTo("coach@example.com");
-        assertEquals(1, messages.size());
-        String html = messages.get(0).getHtml();
-        assertTrue(html.contains("&lt;script&gt;"), "HTML should be escaped");
-        assertFalse(html.contains("<script>"), "Raw script tag must not appear in HTML body");
+    @Test
+    void deliverAllSendsEveryMailAndReportsEachResult() {
+        List<Mail> batch = List.of(
+                Mail.withHtml("a@example.com", "one", "<p>1</p>"),
+                Mail.withHtml("b@example.com", "two", "<p>2</p>"),
+                Mail.withHtml("c@example.com", "three", "<p>3</p>"));
+
+        List<CompletableFuture<Void>> results = emailNotifications.deliverAll(batch);
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+
+        assertEquals(3, results.size());
+        assertTrue(results.stream().noneMatch(CompletableFuture::isCompletedExceptionally));
+        assertEquals(3, mailbox.getTotalMessagesSent());
     }
 
     // ── helpers ──────────────────────────────────────────────────────────────
 
+    private void deliver(Mail mail) {
+        emailNotifications.deliverAll(List.of(mail)).get(0).join();
+    }
+
     private static Booking buildBooking() {
         AppUser client = new AppUser();
         client.id = 1L;
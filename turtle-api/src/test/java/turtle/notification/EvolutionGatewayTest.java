@@ -0,0 +1,104 @@
+package turtle.notification;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.faulttolerance.api.CircuitBreakerMaintenance;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.faulttolerance.exceptions.CircuitBreakerOpenException;
+import org.eclipse.microprofile.faulttolerance.exceptions.TimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import turtle.booking.BookingService;
+import turtle.coach.Availability;
+import turtle.coach.TimeWindow;
+import turtle.user.AppUser;
+import turtle.user.UserRole;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static turtle.TestData.oneHourWindow;
+import static turtle.TestData.user;
+
+@QuarkusTest
+class EvolutionGatewayTest {
+
+    @Inject
+    EvolutionGateway gateway;
+
+    @Inject
+    CircuitBreakerMaintenance circuitBreakers;
+
+    @Inject
+    BookingService bookingService;
+
+    @Inject
+    OutboxRelay relay;
+
+    @BeforeEach
+    @AfterEach
+    void reset() {
+        FakeEvolutionGateway.reset();
+        circuitBreakers.reset(EvolutionGateway.CIRCUIT_BREAKER);
+    }
+
+    @Test
+    void deliversThroughTheGateway() {
+        gateway.sendText("5511000000010", "hello");
+
+        assertEquals(1, FakeEvolutionGateway.received());
+    }
+
+    @Test
+    void hangingGatewayIsCutOffByTheTimeout() {
+        FakeEvolutionGateway.latency(3_000);
+
+        long t0 = System.nanoTime();
+        assertThrows(TimeoutException.class, () -> gateway.sendText("5511000000011", "hello"));
+
+        assertTrue((System.nanoTime() - t0) / 1_000_000 < 2_000, "call was not cut off");
+    }
+
+    @Test
+    void circuitOpensAfterRepeatedFailures() {
+        FakeEvolutionGateway.failWith(503);
+        for (int i = 0; i < 20; i++) {
+            assertThrows(Exception.class, () -> gateway.sendText("5511000000012", "hello"));
+        }
+        int reachedGateway = FakeEvolutionGateway.received();
+
+        assertThrows(CircuitBreakerOpenException.class, () -> gateway.sendText("5511000000012", "hello"));
+        assertEquals(reachedGateway, FakeEvolutionGateway.received());
+    }
+
+    @Test
+    void bookingStaysFastWhileTheGatewayIsDegraded() {
+        FakeEvolutionGateway.latency(3_000);
+        Long[] ids = fixture();
+
+        long t0 = System.nanoTime();
+        bookingService.create(ids[0], List.of(Availability.slotId(ids[1], 0)), null, null);
+        long bookingMillis = (System.nanoTime() - t0) / 1_000_000;
+
+        t0 = System.nanoTime();
+        relay.drain();
+        long relayMillis = (System.nanoTime() - t0) / 1_000_000;
+
+        assertTrue(bookingMillis < 1_000, "booking took " + bookingMillis + " ms");
+        assertTrue(relayMillis < 3_000, "relay was held up for " + relayMillis + " ms");
+    }
+
+    /** A client and a one-hour window of a coach with a phone number. */
+    private static Long[] fixture() {
+        LocalDate day = LocalDate.now().plusDays(70);
+        return QuarkusTransaction.requiringNew().call(() -> {
+            AppUser coach = user("Degraded Coach", UserRole.COACH);
+            coach.phone = "5511000000013";
+            AppUser client = user("Degraded Client", UserRole.CLIENT);
+            TimeWindow tw = oneHourWindow(coach, day);
+            return new Long[]{client.id, tw.id};
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package turtle.notification;
+
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stand-in for the Evolution API, served by the application under test. Tests can
+ * inject latency or make it fail to exercise {@link EvolutionGateway}.
+ */
+@Path("/fake-evolution/message")
+public class FakeEvolutionGateway {
+
+    private static volatile long latencyMillis;
+    private static volatile int status = 201;
+    private static final AtomicInteger received = new AtomicInteger();
+
+    static void reset() {
+        latencyMillis = 0;
+        status = 201;
+        received.set(0);
+    }
+
+    static void latency(long millis) {
+        latencyMillis = millis;
+    }
+
+    static void failWith(int httpStatus) {
+        status = httpStatus;
+    }
+
+    static int received() {
+        return received.get();
+    }
+
+    @POST
+    @Path("/sendText/{instance}")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response sendText(@PathParam("instance") String instance, SendTextRequest body) throws InterruptedException {
+        received.incrementAndGet();
+        if (latencyMillis > 0) Thread.sleep(latencyMillis);
+        return Response.status(status).entity("{\"status\":\"PENDING\"}").build();
+    }
+}
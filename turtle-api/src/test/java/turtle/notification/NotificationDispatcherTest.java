@@ -0,0 +1,76 @@
+package turtle.notification;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class NotificationDispatcherTest {
+
+    @Inject
+    NotificationDispatcher dispatcher;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Test
+    void runsDeliveriesOffTheCallingThread() throws InterruptedException {
+        Thread caller = Thread.currentThread();
+        Thread[] ranOn = new Thread[1];
+        CountDownLatch done = new CountDownLatch(1);
+
+        dispatcher.submit("test", () -> {
+            ranOn[0] = Thread.currentThread();
+            done.countDown();
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertNotSame(caller, ranOn[0]);
+    }
+
+    @Test
+    void failedDeliveriesFailTheFuture() {
+        CompletableFuture<Void> delivery = dispatcher.submit("test", () -> {
+            throw new IllegalStateException("gateway down");
+        });
+
+        CompletionException e = assertThrows(CompletionException.class, delivery::join);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    @Test
+    void rejectsDeliveriesWhenTheQueueIsFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocked = () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        double rejectedBefore = rejected();
+
+        // 2 threads + 4 queue slots in the test profile
+        int accepted = 0;
+        for (int i = 0; i < 7; i++) {
+            if (!dispatcher.submit("backpressure", blocked).isCompletedExceptionally()) accepted++;
+        }
+        release.countDown();
+
+        assertEquals(6, accepted);
+        assertEquals(rejectedBefore + 1, rejected());
+    }
+
+    private double rejected() {
+        var counter = registry.find("turtle.notifications.rejected").tag("channel", "backpressure").counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
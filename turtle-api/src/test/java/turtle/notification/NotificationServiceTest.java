@@ -8,8 +8,8 @@ import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
-import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 @QuarkusTest
@@ -23,11 +23,11 @@ class NotificationServiceTest {
     NotificationService notificationService;
 
     @Test
-    void sendCallsEvolutionApiWithPhoneAndMessage() {
+    void deliverCallsEvolutionApiWithPhoneAndMessage() {
         Mockito.when(evolutionApiClient.sendText(anyString(), anyString(), any()))
                 .thenReturn(Response.ok().build());
 
-        notificationService.send("5511999999999", "Hello coach!");
+        notificationService.deliver("5511999999999", "Hello coach!");
 
         verify(evolutionApiClient).sendText(
                 eq("test"),
@@ -36,23 +36,10 @@ class NotificationServiceTest {
     }
 
     @Test
-    void sendSkipsCallWhenPhoneIsNull() {
-        notificationService.send(null, "Hello!");
-        verify(evolutionApiClient, never()).sendText(any(), any(), any());
-    }
-
-    @Test
-    void sendSkipsCallWhenPhoneIsBlank() {
-        notificationService.send("  ", "Hello!");
-        verify(evolutionApiClient, never()).sendText(any(), any(), any());
-    }
-
-    @Test
-    void sendDoesNotThrowWhenEvolutionApiIsDown() {
+    void deliverPropagatesGatewayFailuresForTheRelayToRetry() {
         Mockito.when(evolutionApiClient.sendText(anyString(), anyString(), any()))
                 .thenThrow(new RuntimeException("Connection refused"));
 
-        // Must not propagate the exception
-        notificationService.send("5511999999999", "Hello!");
+        assertThrows(RuntimeException.class, () -> notificationService.deliver("5511999999999", "Hello!"));
     }
 }
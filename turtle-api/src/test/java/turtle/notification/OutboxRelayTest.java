@@ -0,0 +1,112 @@
+package turtle.notification;
+
+import io.quarkus.mailer.MockMailbox;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import turtle.booking.BookingService;
+import turtle.coach.Availability;
+import turtle.coach.TimeWindow;
+import turtle.user.AppUser;
+import turtle.user.UserRole;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static turtle.TestData.oneHourWindow;
+import static turtle.TestData.user;
+
+@QuarkusTest
+class OutboxRelayTest {
+
+    @InjectMock
+    @RestClient
+    EvolutionApiClient evolutionApiClient;
+
+    @Inject
+    MockMailbox mailbox;
+
+    @Inject
+    BookingService bookingService;
+
+    @Inject
+    OutboxRelay relay;
+
+    @Test
+    void bookingNotificationsAreWrittenWithTheBookingAndDeliveredByTheRelay() {
+        Mockito.when(evolutionApiClient.sendText(anyString(), anyString(), any()))
+                .thenReturn(Response.ok().build());
+        String[] coach = bookSlot("5511000000001");
+
+        List<OutboxMessage> queued = outboxFor(coach);
+        assertEquals(2, queued.size());
+        assertTrue(queued.stream().allMatch(m -> m.status == OutboxStatus.PENDING));
+
+        relay.drain();
+
+        assertTrue(outboxFor(coach).stream().allMatch(m -> m.status == OutboxStatus.SENT && m.sentAt != null));
+        Mockito.verify(evolutionApiClient).sendText(eq("test"), eq("test-key"),
+                argThat(r -> r.number().equals(coach[1])));
+        assertEquals(1, mailbox.getMessagesSentTo(coach[0]).size());
+    }
+
+    @Test
+    void failedDeliveriesAreRetriedLaterWithBackoff() {
+        Mockito.when(evolutionApiClient.sendText(anyString(), anyString(), any()))
+                .thenThrow(new RuntimeException("gateway down"));
+        String[] coach = bookSlot("5511000000002");
+
+        relay.drain();
+
+        OutboxMessage whatsApp = outboxFor(coach).stream()
+                .filter(m -> m.channel == OutboxChannel.WHATSAPP).findFirst().orElseThrow();
+        assertEquals(OutboxStatus.PENDING, whatsApp.status);
+        assertEquals(1, whatsApp.attempts);
+        assertEquals("gateway down", whatsApp.lastError);
+        assertTrue(whatsApp.nextAttemptAt.isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void noWhatsAppMessageIsQueuedWithoutAPhoneNumber() {
+        String[] coach = bookSlot("  ");
+
+        List<OutboxMessage> queued = outboxFor(coach);
+        assertEquals(1, queued.size());
+        assertEquals(OutboxChannel.EMAIL, queued.get(0).channel);
+    }
+
+    @Test
+    void backoffDoublesUpToTheCap() {
+        assertEquals(Duration.ofSeconds(10), relay.backoff(1));
+        assertEquals(Duration.ofSeconds(40), relay.backoff(3));
+        assertEquals(Duration.ofHours(1), relay.backoff(30));
+    }
+
+    /** Books a slot with a fresh coach; returns the coach's email and phone. */
+    private String[] bookSlot(String coachPhone) {
+        LocalDate day = LocalDate.now().plusDays(60);
+        Object[] ids = QuarkusTransaction.requiringNew().call(() -> {
+            AppUser coach = user("Outbox Coach", UserRole.COACH);
+            coach.phone = coachPhone;
+            AppUser client = user("Outbox Client", UserRole.CLIENT);
+            TimeWindow tw = oneHourWindow(coach, day);
+            return new Object[]{coach.email, client.id, tw.id};
+        });
+        bookingService.create((Long) ids[1], List.of(Availability.slotId((Long) ids[2], 0)), null, null);
+        return new String[]{(String) ids[0], coachPhone};
+    }
+
+    private static List<OutboxMessage> outboxFor(String[] coach) {
+        return QuarkusTransaction.requiringNew().call(() ->
+                OutboxMessage.list("recipient IN ?1 ORDER BY id", List.of(coach[0], coach[1])));
+    }
+}
@@ -0,0 +1,48 @@
+package turtle.user;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static turtle.TestData.user;
+
+@QuarkusTest
+class CurrentUserTest {
+
+    @Inject
+    CurrentUser currentUser;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Test
+    @TestSecurity(user = "42", roles = "COACH")
+    void readsTheCallerFromTheToken() {
+        assertEquals(42L, currentUser.id());
+        assertTrue(currentUser.hasRole("COACH"));
+        currentUser.assertIs(42L);
+
+        WebApplicationException e = assertThrows(WebApplicationException.class, () -> currentUser.assertIs(7L));
+        assertEquals(403, e.getResponse().getStatus());
+    }
+
+    @Test
+    void usersAreServedFromTheSecondLevelCache() {
+        Long id = QuarkusTransaction.requiringNew().call(() -> user("Cached User", UserRole.CLIENT).id);
+        QuarkusTransaction.requiringNew().run(() -> AppUser.findById(id));
+
+        Statistics stats = sessionFactory.getStatistics();
+        stats.clear();
+        String name = QuarkusTransaction.requiringNew().call(() -> AppUser.<AppUser>findById(id).name);
+
+        assertEquals("Cached User", name);
+        assertEquals(0, stats.getPrepareStatementCount());
+        assertTrue(stats.getSecondLevelCacheHitCount() > 0);
+    }
+}